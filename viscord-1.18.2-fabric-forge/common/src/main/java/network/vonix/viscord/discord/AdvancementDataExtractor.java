@@ -28,22 +28,38 @@ public class AdvancementDataExtractor {
             throw new ExtractionException("Embed cannot be null");
         }
 
+        // Validate that this is actually an advancement embed
+        if (!detector.isAdvancementEmbed(embed)) {
+            throw new ExtractionException("Embed is not an advancement embed");
+        }
+
+        // Extract advancement type with error handling
+        AdvancementType type;
         try {
-            // Validate that this is actually an advancement embed
-            if (!detector.isAdvancementEmbed(embed)) {
-                throw new ExtractionException("Embed is not an advancement embed");
-            }
+            type = detector.getAdvancementType(embed);
+        } catch (Exception typeError) {
+            type = AdvancementType.NORMAL;
+        }
+        return extractFromEmbed(embed, type, null);
+    }
 
-            // Extract advancement type with error handling
-            AdvancementType type;
-            try {
-                type = detector.getAdvancementType(embed);
-            } catch (Exception typeError) {
-                type = AdvancementType.NORMAL;
-            }
+    /**
+     * Extracts advancement data from an embed already known to be an advancement
+     * embed of the given type, e.g. from {@link EmbedClassifier}. {@code knownPlayerName}
+     * is used as is when not null; otherwise it is read from the embed fields.
+     */
+    public AdvancementData extractFromEmbed(Embed embed, AdvancementType type, String knownPlayerName)
+            throws ExtractionException {
+        if (embed == null) {
+            throw new ExtractionException("Embed cannot be null");
+        }
+        if (type == null) {
+            type = AdvancementType.NORMAL;
+        }
 
+        try {
             // Extract data from embed fields with enhanced error handling
-            String playerName = null;
+            String playerName = knownPlayerName;
             String advancementTitle = null;
             String advancementDescription = null;
 
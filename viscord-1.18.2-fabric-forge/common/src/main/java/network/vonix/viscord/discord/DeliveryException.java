@@ -0,0 +1,34 @@
+package network.vonix.viscord.discord;
+
+/**
+ * Exception used to fail an outbound Discord payload.
+ * Retryable failures (network errors, 5xx, rate limits, bot offline) are kept
+ * in the outbox and replayed later; the rest are dropped.
+ */
+public class DeliveryException extends Exception {
+
+    private final boolean retryable;
+
+    /**
+     * Creates a new DeliveryException with the specified message.
+     */
+    public DeliveryException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    /**
+     * Creates a new DeliveryException with the specified message and cause.
+     */
+    public DeliveryException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    /**
+     * True if sending the payload again later may succeed.
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
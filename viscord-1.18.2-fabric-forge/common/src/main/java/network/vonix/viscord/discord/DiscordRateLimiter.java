@@ -0,0 +1,171 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+import okhttp3.Headers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks Discord HTTP rate-limit buckets from response headers.
+ * Routes (e.g. a webhook URL) are mapped to the bucket Discord reports for them,
+ * so requests can be delayed before a bucket runs dry instead of after a 429.
+ */
+public class DiscordRateLimiter {
+
+    private static final String HEADER_LIMIT = "X-RateLimit-Limit";
+    private static final String HEADER_REMAINING = "X-RateLimit-Remaining";
+    private static final String HEADER_RESET_AFTER = "X-RateLimit-Reset-After";
+    private static final String HEADER_BUCKET = "X-RateLimit-Bucket";
+    private static final String HEADER_GLOBAL = "X-RateLimit-Global";
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    // Used when a 429 arrives without any usable retry hint
+    private static final long DEFAULT_RETRY_MS = 1000;
+
+    // Route -> bucket hash reported by Discord
+    private final Map<String, String> routeBuckets = new ConcurrentHashMap<>();
+
+    // Bucket hash -> state
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private volatile long globalResetAt = 0;
+
+    /**
+     * Returns how long to wait before a request on this route may be sent,
+     * in milliseconds. Zero means the request can go out now.
+     */
+    public long getDelayMillis(String route) {
+        long now = System.currentTimeMillis();
+        long delay = Math.max(0, globalResetAt - now);
+
+        Bucket bucket = bucketFor(route);
+        if (bucket != null) {
+            delay = Math.max(delay, bucket.getDelayMillis(now));
+        }
+        return delay;
+    }
+
+    /**
+     * Reserves one request from the route's bucket. Call right before sending
+     * so that several sends in a row cannot overdraw the bucket while
+     * responses are still in flight.
+     */
+    public void reserve(String route) {
+        Bucket bucket = bucketFor(route);
+        if (bucket != null) {
+            bucket.reserve(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Updates bucket state from a response.
+     * Returns the delay in milliseconds before a retry if the response was a 429,
+     * or -1 if the request was not rate limited.
+     */
+    public long onResponse(String route, int statusCode, Headers headers) {
+        long now = System.currentTimeMillis();
+
+        String bucketId = headers.get(HEADER_BUCKET);
+        if (bucketId != null && !bucketId.isEmpty()) {
+            routeBuckets.put(route, bucketId);
+            Bucket bucket = buckets.computeIfAbsent(bucketId, id -> new Bucket());
+            bucket.update(now,
+                    parseInt(headers.get(HEADER_LIMIT), -1),
+                    parseInt(headers.get(HEADER_REMAINING), -1),
+                    parseSecondsToMillis(headers.get(HEADER_RESET_AFTER), -1));
+        }
+
+        if (statusCode != 429) {
+            return -1;
+        }
+
+        long retryAfter = parseSecondsToMillis(headers.get(HEADER_RETRY_AFTER), -1);
+        if (retryAfter < 0) {
+            retryAfter = parseSecondsToMillis(headers.get(HEADER_RESET_AFTER), DEFAULT_RETRY_MS);
+        }
+
+        if ("true".equalsIgnoreCase(headers.get(HEADER_GLOBAL))) {
+            globalResetAt = Math.max(globalResetAt, now + retryAfter);
+            Viscord.LOGGER.warn("[Discord] Hit global rate limit, pausing requests for {} ms", retryAfter);
+        } else {
+            Bucket bucket = bucketFor(route);
+            if (bucket != null) {
+                bucket.exhaust(now + retryAfter);
+            }
+        }
+        return retryAfter;
+    }
+
+    private Bucket bucketFor(String route) {
+        String bucketId = routeBuckets.get(route);
+        return bucketId == null ? null : buckets.get(bucketId);
+    }
+
+    private static int parseInt(String value, int fallback) {
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Discord sends reset/retry values in seconds, possibly fractional ("1.337").
+     */
+    private static long parseSecondsToMillis(String value, long fallback) {
+        if (value == null) return fallback;
+        try {
+            return (long) Math.ceil(Double.parseDouble(value.trim()) * 1000.0);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * State of a single rate-limit bucket.
+     */
+    private static final class Bucket {
+        private int limit = -1;
+        private int remaining = -1;
+        private long resetAt = 0;
+
+        synchronized long getDelayMillis(long now) {
+            if (now >= resetAt) {
+                // Window has passed; assume the bucket refilled until told otherwise
+                if (limit > 0) {
+                    remaining = limit;
+                }
+                return 0;
+            }
+            return remaining == 0 ? resetAt - now : 0;
+        }
+
+        synchronized void reserve(long now) {
+            if (now >= resetAt && limit > 0) {
+                remaining = limit;
+            }
+            if (remaining > 0) {
+                remaining--;
+            }
+        }
+
+        synchronized void update(long now, int limit, int remaining, long resetAfterMs) {
+            if (limit >= 0) {
+                this.limit = limit;
+            }
+            if (remaining >= 0) {
+                this.remaining = remaining;
+            }
+            if (resetAfterMs >= 0) {
+                this.resetAt = now + resetAfterMs;
+            }
+        }
+
+        synchronized void exhaust(long until) {
+            remaining = 0;
+            resetAt = Math.max(resetAt, until);
+        }
+    }
+}
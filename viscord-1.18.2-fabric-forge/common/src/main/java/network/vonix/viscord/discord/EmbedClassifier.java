@@ -0,0 +1,306 @@
+package network.vonix.viscord.discord;
+
+import org.javacord.api.entity.message.embed.Embed;
+import org.javacord.api.entity.message.embed.EmbedFooter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorts inbound embeds into advancement, event (join/leave/death), player list
+ * or other, and works out the advancement or event type at the same time.
+ *
+ * Embeds tagged with an {@link EmbedEnvelope} by another Viscord server are
+ * classified from the tag alone. For anything else, footer and title are each
+ * scanned once, case-insensitively and without lowercased copies, by a keyword
+ * automaton compiled at class load. The rules are the same as the
+ * {@link AdvancementEmbedDetector}, {@link EventEmbedDetector} and player list
+ * checks applied one after another.
+ */
+public class EmbedClassifier {
+
+    public enum Kind {
+        ADVANCEMENT,
+        EVENT,
+        PLAYER_LIST,
+        OTHER
+    }
+
+    // Footer keywords
+    private static final int F_ADVANCEMENT = 1;
+    private static final int F_GOAL = 1 << 1;
+    private static final int F_CHALLENGE = 1 << 2;
+    private static final int F_TASK = 1 << 3;
+    private static final int F_JOIN = 1 << 4;
+    private static final int F_LEAVE = 1 << 5;
+    private static final int F_DEATH = 1 << 6;
+    private static final int F_PLAYER_LIST = 1 << 7;
+
+    // Title keywords, matched on letters and spaces only
+    private static final int T_CHALLENGE = 1;
+    private static final int T_GOAL = 1 << 1;
+    private static final int T_JOIN = 1 << 2;
+    private static final int T_LEFT = 1 << 3;
+    private static final int T_DIED = 1 << 4;
+    private static final int T_PLAYER_JOINED = 1 << 5;
+    private static final int T_PLAYER_LEFT = 1 << 6;
+    private static final int T_PLAYER_DIED = 1 << 7;
+    private static final int T_LIST = 1 << 8;
+    private static final int T_STATUS = 1 << 9;
+
+    private static final int F_ADVANCEMENT_ANY = F_ADVANCEMENT | F_GOAL | F_CHALLENGE | F_TASK;
+    private static final int F_EVENT_ANY = F_JOIN | F_LEAVE | F_DEATH;
+    private static final int T_EVENT_ANY = T_PLAYER_JOINED | T_PLAYER_LEFT | T_PLAYER_DIED;
+
+    private static final KeywordMatcher FOOTER = new KeywordMatcher(false, new String[][] {
+            {"advancement"}, {"goal"}, {"challenge"}, {"task"},
+            {"join"}, {"leave"}, {"death"}, {"player list"}
+    });
+    private static final KeywordMatcher TITLE = new KeywordMatcher(true, new String[][] {
+            {"challenge"}, {"goal"}, {"join"}, {"left", "leave"}, {"died", "death"},
+            {"player joined"}, {"player left"}, {"player died"}, {"list"}, {"status"}
+    });
+
+    /**
+     * Result of classifying an embed. The event type is only meaningful for
+     * EVENT and the advancement type only for ADVANCEMENT.
+     */
+    public static final class Classification {
+        private final Kind kind;
+        private final EventEmbedDetector.EventType eventType;
+        private final AdvancementType advancementType;
+        private final String playerName;
+
+        Classification(Kind kind, EventEmbedDetector.EventType eventType, AdvancementType advancementType) {
+            this(kind, eventType, advancementType, null);
+        }
+
+        Classification(Kind kind, EventEmbedDetector.EventType eventType, AdvancementType advancementType,
+                String playerName) {
+            this.kind = kind;
+            this.eventType = eventType;
+            this.advancementType = advancementType;
+            this.playerName = playerName;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public EventEmbedDetector.EventType getEventType() {
+            return eventType;
+        }
+
+        public AdvancementType getAdvancementType() {
+            return advancementType;
+        }
+
+        /**
+         * The player named by the embed's envelope, or null if it has to be
+         * extracted from the embed content.
+         */
+        public String getPlayerName() {
+            return playerName;
+        }
+    }
+
+    private static final Classification OTHER = new Classification(Kind.OTHER,
+            EventEmbedDetector.EventType.UNKNOWN, AdvancementType.NORMAL);
+    private static final Classification PLAYER_LIST = new Classification(Kind.PLAYER_LIST,
+            EventEmbedDetector.EventType.UNKNOWN, AdvancementType.NORMAL);
+
+    public Classification classify(Embed embed) {
+        if (embed == null) {
+            return OTHER;
+        }
+        String footer = embed.getFooter().flatMap(EmbedFooter::getText).orElse(null);
+        EmbedEnvelope envelope = EmbedEnvelope.decode(footer);
+        if (envelope != null) {
+            return fromEnvelope(envelope);
+        }
+
+        String title = embed.getTitle().orElse(null);
+        int f = footer != null ? FOOTER.scan(footer) : 0;
+        int t = title != null ? TITLE.scan(title) : 0;
+
+        if ((f & F_ADVANCEMENT_ANY) != 0) {
+            return new Classification(Kind.ADVANCEMENT, EventEmbedDetector.EventType.UNKNOWN,
+                    advancementType(f, t));
+        }
+        if ((f & F_EVENT_ANY) != 0 || (t & T_EVENT_ANY) != 0) {
+            return new Classification(Kind.EVENT, eventType(f, t), AdvancementType.NORMAL);
+        }
+        // These keywords are case-sensitive; confirm the rare hits exactly
+        if (((f & F_PLAYER_LIST) != 0 && footer.contains("Player List"))
+                || ((t & T_LIST) != 0 && title.contains("List"))
+                || ((t & T_STATUS) != 0 && title.contains("Status"))) {
+            return PLAYER_LIST;
+        }
+        return OTHER;
+    }
+
+    private static Classification fromEnvelope(EmbedEnvelope envelope) {
+        String player = envelope.getPlayerName();
+        switch (envelope.getKind()) {
+            case JOIN:
+                return new Classification(Kind.EVENT, EventEmbedDetector.EventType.JOIN, AdvancementType.NORMAL, player);
+            case LEAVE:
+                return new Classification(Kind.EVENT, EventEmbedDetector.EventType.LEAVE, AdvancementType.NORMAL, player);
+            case DEATH:
+                return new Classification(Kind.EVENT, EventEmbedDetector.EventType.DEATH, AdvancementType.NORMAL, player);
+            case ADVANCEMENT:
+                return new Classification(Kind.ADVANCEMENT, EventEmbedDetector.EventType.UNKNOWN,
+                        AdvancementType.NORMAL, player);
+            case GOAL:
+                return new Classification(Kind.ADVANCEMENT, EventEmbedDetector.EventType.UNKNOWN,
+                        AdvancementType.GOAL, player);
+            case CHALLENGE:
+                return new Classification(Kind.ADVANCEMENT, EventEmbedDetector.EventType.UNKNOWN,
+                        AdvancementType.CHALLENGE, player);
+            case PLAYER_LIST:
+                return PLAYER_LIST;
+            default:
+                // Status messages and digests are shown as ordinary embeds
+                return OTHER;
+        }
+    }
+
+    private static AdvancementType advancementType(int f, int t) {
+        if ((t & T_CHALLENGE) != 0) {
+            return AdvancementType.CHALLENGE;
+        } else if ((t & T_GOAL) != 0) {
+            return AdvancementType.GOAL;
+        } else if ((f & F_CHALLENGE) != 0) {
+            return AdvancementType.CHALLENGE;
+        } else if ((f & F_GOAL) != 0) {
+            return AdvancementType.GOAL;
+        }
+        return AdvancementType.NORMAL;
+    }
+
+    private static EventEmbedDetector.EventType eventType(int f, int t) {
+        if ((f & F_JOIN) != 0) {
+            return EventEmbedDetector.EventType.JOIN;
+        } else if ((f & F_LEAVE) != 0) {
+            return EventEmbedDetector.EventType.LEAVE;
+        } else if ((f & F_DEATH) != 0) {
+            return EventEmbedDetector.EventType.DEATH;
+        } else if ((t & T_JOIN) != 0) {
+            return EventEmbedDetector.EventType.JOIN;
+        } else if ((t & T_LEFT) != 0) {
+            return EventEmbedDetector.EventType.LEAVE;
+        } else if ((t & T_DIED) != 0) {
+            return EventEmbedDetector.EventType.DEATH;
+        }
+        return EventEmbedDetector.EventType.UNKNOWN;
+    }
+
+    /**
+     * Aho-Corasick automaton over ASCII letters and space, folded to lower case.
+     * Each keyword group sets one bit in the scan result.
+     */
+    static final class KeywordMatcher {
+        private static final int SPACE = 26;
+        private static final int OTHER = 27;
+        private static final int COLUMNS = 28;
+
+        private final boolean lettersOnly;
+        private final int[] next;
+        private final int[] output;
+
+        /**
+         * @param lettersOnly skip characters other than ASCII letters and space,
+         *                    as if they had been stripped from the text
+         * @param groups      keywords per result bit, lower case
+         */
+        KeywordMatcher(boolean lettersOnly, String[][] groups) {
+            this.lettersOnly = lettersOnly;
+
+            // Trie
+            List<int[]> gotos = new ArrayList<>();
+            List<Integer> outs = new ArrayList<>();
+            gotos.add(newRow());
+            outs.add(0);
+            for (int bit = 0; bit < groups.length; bit++) {
+                for (String keyword : groups[bit]) {
+                    int state = 0;
+                    for (int i = 0; i < keyword.length(); i++) {
+                        int column = column(keyword.charAt(i));
+                        if (gotos.get(state)[column] < 0) {
+                            gotos.get(state)[column] = gotos.size();
+                            gotos.add(newRow());
+                            outs.add(0);
+                        }
+                        state = gotos.get(state)[column];
+                    }
+                    outs.set(state, outs.get(state) | (1 << bit));
+                }
+            }
+
+            // Failure links, folded into a full transition table
+            int states = gotos.size();
+            next = new int[states * COLUMNS];
+            output = new int[states];
+            int[] fail = new int[states];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < COLUMNS; c++) {
+                int target = gotos.get(0)[c];
+                next[c] = Math.max(target, 0);
+                if (target > 0) {
+                    queue.add(target);
+                }
+            }
+            output[0] = outs.get(0);
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                output[state] = outs.get(state) | output[fail[state]];
+                for (int c = 0; c < COLUMNS; c++) {
+                    int target = gotos.get(state)[c];
+                    if (target < 0) {
+                        next[state * COLUMNS + c] = next[fail[state] * COLUMNS + c];
+                    } else {
+                        fail[target] = next[fail[state] * COLUMNS + c];
+                        next[state * COLUMNS + c] = target;
+                        queue.add(target);
+                    }
+                }
+            }
+        }
+
+        private static int[] newRow() {
+            int[] row = new int[COLUMNS];
+            Arrays.fill(row, -1);
+            return row;
+        }
+
+        private static int column(char c) {
+            if (c >= 'a' && c <= 'z') {
+                return c - 'a';
+            } else if (c >= 'A' && c <= 'Z') {
+                return c - 'A';
+            } else if (c == ' ') {
+                return SPACE;
+            }
+            return OTHER;
+        }
+
+        /**
+         * Returns the bits of every keyword group found in the text.
+         */
+        int scan(String text) {
+            int state = 0;
+            int found = 0;
+            for (int i = 0, length = text.length(); i < length; i++) {
+                int column = column(text.charAt(i));
+                if (column == OTHER && lettersOnly) {
+                    continue;
+                }
+                state = next[state * COLUMNS + column];
+                found |= output[state];
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Bounded FIFO queue for outbound Discord payloads.
+ * Applies a configurable overflow policy when the queue is full so that
+ * chat storms cannot grow memory or thread usage without limit.
+ * No method ever waits for room, so offering is safe from any thread.
+ * Items held under BLOCK are dropped by a timer once their timeout passes,
+ * even if nothing is offered or polled in the meantime.
+ */
+public class OutboundQueue<T> {
+
+    /**
+     * What to do with a new item when the queue is already at capacity.
+     */
+    public enum OverflowPolicy {
+        /** Evict the oldest queued item to make room for the new one. */
+        DROP_OLDEST,
+        /** Reject the new item and keep the queue as it is. */
+        DROP_NEWEST,
+        /**
+         * Hold the new item (not the offering thread) for up to the configured
+         * timeout until room frees up, then drop it.
+         */
+        BLOCK;
+
+        /**
+         * Parses a policy from its config name (e.g. "drop_oldest").
+         * Unknown values fall back to DROP_OLDEST.
+         */
+        public static OverflowPolicy fromConfig(String value) {
+            if (value != null) {
+                for (OverflowPolicy policy : values()) {
+                    if (policy.name().equalsIgnoreCase(value.trim().replace('-', '_'))) {
+                        return policy;
+                    }
+                }
+            }
+            return DROP_OLDEST;
+        }
+    }
+
+    private final Deque<T> items = new ArrayDeque<>();
+    // BLOCK: items waiting for room, oldest first, at most capacity of them
+    private final Deque<Waiting<T>> overflow = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutMs;
+
+    private long droppedCount = 0;
+    // BLOCK: pending expiry of the oldest waiting item, null while none is waiting
+    private ScheduledFuture<?> expiryTimer;
+    private volatile Consumer<T> evictionListener;
+
+    public OutboundQueue(int capacity, OverflowPolicy policy, long blockTimeoutMs) {
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy == null ? OverflowPolicy.DROP_OLDEST : policy;
+        this.blockTimeoutMs = Math.max(0, blockTimeoutMs);
+    }
+
+    /**
+     * Registers a callback for items evicted by the DROP_OLDEST policy, or
+     * dropped after waiting out the BLOCK timeout.
+     * Called on the offering or polling thread after the queue lock is released.
+     */
+    public void setEvictionListener(Consumer<T> listener) {
+        this.evictionListener = listener;
+    }
+
+    /**
+     * Adds an item to the tail of the queue, applying the overflow policy if full.
+     * Returns false if the new item was rejected.
+     */
+    public boolean offer(T item) {
+        List<T> evicted = null;
+        lock.lock();
+        try {
+            if (items.size() >= capacity) {
+                switch (policy) {
+                    case DROP_OLDEST:
+                        evicted = new ArrayList<>(1);
+                        evicted.add(items.pollFirst());
+                        droppedCount++;
+                        break;
+                    case DROP_NEWEST:
+                        droppedCount++;
+                        return false;
+                    case BLOCK:
+                        long now = System.nanoTime();
+                        evicted = expireOverflow(now);
+                        if (blockTimeoutMs == 0 || overflow.size() >= capacity) {
+                            droppedCount++;
+                            return false;
+                        }
+                        overflow.addLast(new Waiting<>(item, now + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs)));
+                        if (expiryTimer == null) {
+                            expiryTimer = Viscord.schedule(this::expireWaiting, blockTimeoutMs);
+                        }
+                        return true;
+                }
+            }
+            items.addLast(item);
+        } finally {
+            lock.unlock();
+            notifyEvicted(evicted);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the head of the queue, or returns null if it is empty.
+     * Under BLOCK, the oldest item still waiting takes the freed slot.
+     */
+    public T poll() {
+        List<T> expired = null;
+        lock.lock();
+        try {
+            T item = items.pollFirst();
+            if (item != null && !overflow.isEmpty()) {
+                expired = expireOverflow(System.nanoTime());
+                Waiting<T> next = overflow.pollFirst();
+                if (next != null) {
+                    items.addLast(next.item);
+                }
+            }
+            return item;
+        } finally {
+            lock.unlock();
+            notifyEvicted(expired);
+        }
+    }
+
+    /**
+     * Removes and returns every queued item (used on shutdown).
+     */
+    public List<T> drainAll() {
+        lock.lock();
+        try {
+            List<T> drained = new ArrayList<>(items);
+            items.clear();
+            for (Waiting<T> waiting : overflow) {
+                drained.add(waiting.item);
+            }
+            overflow.clear();
+            if (expiryTimer != null) {
+                expiryTimer.cancel(false);
+                expiryTimer = null;
+            }
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of queued items, including any waiting for room under BLOCK.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return items.size() + overflow.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of items rejected or evicted because the queue was full.
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Timer task: drops waiting items that timed out, then waits for the next deadline.
+     */
+    private void expireWaiting() {
+        List<T> expired;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            expired = expireOverflow(now);
+            Waiting<T> next = overflow.peekFirst();
+            // Rounded up, so the next run finds it expired
+            expiryTimer = next == null ? null
+                    : Viscord.schedule(this::expireWaiting, TimeUnit.NANOSECONDS.toMillis(next.deadline - now) + 1);
+        } finally {
+            lock.unlock();
+        }
+        notifyEvicted(expired);
+    }
+
+    /**
+     * Removes waiting items whose timeout has passed. Called with the lock held.
+     */
+    private List<T> expireOverflow(long now) {
+        List<T> expired = null;
+        while (!overflow.isEmpty() && overflow.peekFirst().deadline - now <= 0) {
+            if (expired == null) {
+                expired = new ArrayList<>();
+            }
+            expired.add(overflow.pollFirst().item);
+            droppedCount++;
+        }
+        return expired;
+    }
+
+    private void notifyEvicted(List<T> evicted) {
+        Consumer<T> listener = evictionListener;
+        if (listener != null && evicted != null) {
+            for (T item : evicted) {
+                listener.accept(item);
+            }
+        }
+    }
+
+    private static final class Waiting<T> {
+        final T item;
+        final long deadline;
+
+        Waiting(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Decides which outbound Discord send goes next when more is waiting than
+ * Discord lets through. Sends are sorted into lanes: system messages always
+ * go first, the other lanes share the remaining capacity by weight, and the
+ * bulk lane is dropped under pressure.
+ *
+ * At most {@code maxInFlight} sends are outstanding at a time, and no lane
+ * other than SYSTEM may take more than half of them, so one throttled lane
+ * cannot occupy every slot. Sends handed to a transport with its own queue
+ * (webhooks) only hold a slot until the transport has taken them, so that
+ * queue's size, overflow policy and endpoint pool decide how many wait.
+ */
+public class OutboundScheduler {
+
+    /**
+     * Traffic classes, highest priority first.
+     */
+    public enum Lane {
+        /** Startup/shutdown and other server status embeds; strict priority. */
+        SYSTEM(0, false),
+        /** Player chat; latency sensitive. */
+        CHAT(4, false),
+        /** Join, leave and death embeds. */
+        EVENTS(2, false),
+        /** Advancements and other low-value traffic; dropped under pressure. */
+        BULK(1, true);
+
+        final int weight;
+        final boolean droppable;
+
+        Lane(int weight, boolean droppable) {
+            this.weight = weight;
+            this.droppable = droppable;
+        }
+
+        /**
+         * Parses a lane name, falling back to the given lane.
+         */
+        public static Lane fromName(String name, Lane fallback) {
+            if (name != null) {
+                for (Lane lane : values()) {
+                    if (lane.name().equalsIgnoreCase(name)) {
+                        return lane;
+                    }
+                }
+            }
+            return fallback;
+        }
+    }
+
+    // Guarded by this
+    private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+    private int inFlight = 0;
+    private boolean pumping = false;
+    private boolean pumpRequested = false;
+
+    private volatile int maxInFlight = 8;
+    private volatile long bulkMaxAgeMs = 30000;
+
+    public OutboundScheduler() {
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new LaneState(100));
+        }
+    }
+
+    /**
+     * Applies limits. {@code laneCapacity} bounds every lane except BULK, which
+     * uses {@code bulkCapacity}; queued bulk sends older than {@code bulkMaxAgeMs} are dropped.
+     */
+    public synchronized void configure(int maxInFlight, int laneCapacity, int bulkCapacity, long bulkMaxAgeMs) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.bulkMaxAgeMs = Math.max(0, bulkMaxAgeMs);
+        for (Map.Entry<Lane, LaneState> entry : lanes.entrySet()) {
+            entry.getValue().capacity = Math.max(1, entry.getKey() == Lane.BULK ? bulkCapacity : laneCapacity);
+        }
+    }
+
+    /**
+     * Queues a send on a lane. The supplier starts the actual request and is
+     * called once the scheduler picks it; the returned future follows its result,
+     * or fails with a {@link DeliveryException} if the send was dropped.
+     */
+    public CompletableFuture<Void> submit(Lane lane, Supplier<CompletableFuture<Void>> send) {
+        return submit(new Task(lane, send, false));
+    }
+
+    /**
+     * Like {@link #submit}, for transports that queue the send themselves: the
+     * in-flight slot is freed as soon as the supplier returned, while the
+     * returned future still follows delivery.
+     */
+    public CompletableFuture<Void> submitQueued(Lane lane, Supplier<CompletableFuture<Void>> send) {
+        return submit(new Task(lane, send, true));
+    }
+
+    private CompletableFuture<Void> submit(Task task) {
+        Lane lane = task.lane;
+        Task evicted = null;
+        synchronized (this) {
+            LaneState state = lanes.get(lane);
+            if (state.queue.size() >= state.capacity) {
+                evicted = state.queue.pollFirst();
+                state.dropped.incrementAndGet();
+            }
+            state.queue.addLast(task);
+        }
+        if (evicted != null) {
+            if (!lane.droppable) {
+                Viscord.LOGGER.warn("[Discord] {} lane full, dropping its oldest message", lane);
+            }
+            evicted.result.completeExceptionally(new DeliveryException(lane + " lane full", false));
+        }
+        pump();
+        return task.result;
+    }
+
+    public synchronized int getQueuedCount(Lane lane) {
+        return lanes.get(lane).queue.size();
+    }
+
+    public long getDroppedCount(Lane lane) {
+        return lanes.get(lane).dropped.get();
+    }
+
+    /**
+     * Fails everything still queued (e.g. on shutdown).
+     */
+    public void clear() {
+        ArrayDeque<Task> discarded = new ArrayDeque<>();
+        synchronized (this) {
+            for (LaneState state : lanes.values()) {
+                discarded.addAll(state.queue);
+                state.queue.clear();
+            }
+        }
+        for (Task task : discarded) {
+            task.result.completeExceptionally(new DeliveryException("Outbound scheduler shut down", true));
+        }
+    }
+
+    // =================================================================================
+    // Dispatch
+    // =================================================================================
+
+    /**
+     * Starts sends until the in-flight limit is reached. Only one thread pumps at
+     * a time; completions that arrive meanwhile ask it to go round again instead
+     * of recursing.
+     */
+    private void pump() {
+        synchronized (this) {
+            if (pumping) {
+                pumpRequested = true;
+                return;
+            }
+            pumping = true;
+        }
+
+        List<Task> stale = new ArrayList<>();
+        while (true) {
+            Task task;
+            boolean done = false;
+            synchronized (this) {
+                dropStaleBulk(stale);
+                task = next();
+                if (task != null) {
+                    inFlight++;
+                    lanes.get(task.lane).inFlight++;
+                } else if (pumpRequested) {
+                    pumpRequested = false;
+                } else {
+                    pumping = false;
+                    done = true;
+                }
+            }
+
+            for (Task dropped : stale) {
+                dropped.result.completeExceptionally(new DeliveryException("Dropped stale bulk message", false));
+            }
+            stale.clear();
+
+            if (task != null) {
+                start(task);
+            } else if (done) {
+                return;
+            }
+        }
+    }
+
+    private void start(Task task) {
+        CompletableFuture<Void> sent;
+        try {
+            sent = task.send.get();
+        } catch (Exception e) {
+            sent = CompletableFuture.failedFuture(new DeliveryException("Failed to start send", e, false));
+        }
+        if (task.queued) {
+            // Handed over; the pump loop that called us goes on to the next task
+            release(task);
+        }
+        sent.whenComplete((ignored, error) -> {
+            if (!task.queued) {
+                release(task);
+            }
+            if (error != null) {
+                task.result.completeExceptionally(error);
+            } else {
+                task.result.complete(null);
+            }
+            if (!task.queued) {
+                pump();
+            }
+        });
+    }
+
+    private synchronized void release(Task task) {
+        inFlight--;
+        lanes.get(task.lane).inFlight--;
+    }
+
+    /**
+     * Picks the next task: SYSTEM first, then smooth weighted round-robin over
+     * the lanes that have work and are below their share of the in-flight limit.
+     */
+    private Task next() {
+        if (inFlight >= maxInFlight) {
+            return null;
+        }
+
+        LaneState system = lanes.get(Lane.SYSTEM);
+        if (!system.queue.isEmpty()) {
+            return system.queue.pollFirst();
+        }
+
+        int laneLimit = Math.max(1, (maxInFlight + 1) / 2);
+        int totalWeight = 0;
+        LaneState best = null;
+        for (Map.Entry<Lane, LaneState> entry : lanes.entrySet()) {
+            Lane lane = entry.getKey();
+            LaneState state = entry.getValue();
+            if (lane == Lane.SYSTEM || state.queue.isEmpty() || state.inFlight >= laneLimit) {
+                continue;
+            }
+            totalWeight += lane.weight;
+            state.currentWeight += lane.weight;
+            if (best == null || state.currentWeight > best.currentWeight) {
+                best = state;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        best.currentWeight -= totalWeight;
+        return best.queue.pollFirst();
+    }
+
+    /**
+     * Moves bulk sends that waited longer than the allowed age into {@code stale}.
+     */
+    private void dropStaleBulk(List<Task> stale) {
+        LaneState bulk = lanes.get(Lane.BULK);
+        long cutoff = System.currentTimeMillis() - bulkMaxAgeMs;
+        while (!bulk.queue.isEmpty() && bulk.queue.peekFirst().queuedAt < cutoff) {
+            stale.add(bulk.queue.pollFirst());
+            bulk.dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Queue and counters of one lane.
+     */
+    private static final class LaneState {
+        final ArrayDeque<Task> queue = new ArrayDeque<>();
+        final AtomicLong dropped = new AtomicLong();
+        int capacity;
+        int inFlight = 0;
+        int currentWeight = 0;
+
+        LaneState(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * A send waiting for its turn.
+     */
+    private static final class Task {
+        final Lane lane;
+        final Supplier<CompletableFuture<Void>> send;
+        // Holds its slot only until the transport has taken it
+        final boolean queued;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        final long queuedAt = System.currentTimeMillis();
+
+        Task(Lane lane, Supplier<CompletableFuture<Void>> send, boolean queued) {
+            this.lane = lane;
+            this.send = send;
+            this.queued = queued;
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends outgoing chat and event payloads through the {@link OutboxJournal}
+ * and hands them to the {@link OutboundScheduler} lane they belong to.
+ *
+ * While Discord is reachable, payloads are journaled and sent right away.
+ * When a send fails for a reason that may go away (network error, 5xx, bot
+ * offline), that transport switches to spooling: its new payloads are only
+ * journaled, and its part of the journal is replayed in order with a bounded
+ * number of sends in flight, retrying with backoff until it has caught up.
+ * Webhooks and the bot spool independently, so an offline bot does not hold
+ * back webhook chat.
+ *
+ * Journal appends are written and flushed on a single writer thread, in
+ * submission order, so callers (the relay thread, the chat coalescer) never
+ * wait on the disk. If the disk falls behind by more than
+ * {@value #MAX_PENDING_WRITES} payloads, new ones are sent without being
+ * journaled.
+ */
+public class OutboxRelay {
+
+    private static final long MIN_RETRY_MS = 5000;
+    private static final long MAX_RETRY_MS = 60000;
+    private static final int MAX_PENDING_WRITES = 1000;
+
+    private final WebhookClient webhookClient;
+    private final BotClient botClient;
+    private final OutboundScheduler scheduler;
+    private final ThreadPoolExecutor writer;
+
+    // Null when the outbox is disabled or could not be opened; payloads are then just sent
+    private OutboxJournal journal;
+    private int replayBatch = 10;
+
+    // Guarded by this
+    private boolean closed = false;
+    // Bumped on every open, so results of sends from a previous run are ignored
+    private int generation = 0;
+    private final Map<OutboxJournal.Type, Spool> spools = new EnumMap<>(OutboxJournal.Type.class);
+    private final Set<Long> inFlight = new HashSet<>();
+
+    public OutboxRelay(WebhookClient webhookClient, BotClient botClient, OutboundScheduler scheduler) {
+        this.webhookClient = webhookClient;
+        this.botClient = botClient;
+        this.scheduler = scheduler;
+        // Never shut down, as the relay outlives a server restart; the idle thread exits on its own
+        this.writer = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_WRITES), r -> {
+                    Thread thread = new Thread(r, "Viscord-Outbox");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        writer.allowCoreThreadTimeOut(true);
+        for (OutboxJournal.Type type : OutboxJournal.Type.values()) {
+            spools.put(type, new Spool(type));
+        }
+    }
+
+    /**
+     * Opens the journal in the given directory and starts replaying anything
+     * left over from a previous run.
+     */
+    public void open(Path directory, long segmentMaxBytes, int maxSegments, int replayBatch) {
+        synchronized (this) {
+            this.replayBatch = Math.max(1, replayBatch);
+            this.closed = false;
+            generation++;
+            inFlight.clear();
+            for (Spool spool : spools.values()) {
+                spool.reset();
+            }
+            try {
+                this.journal = new OutboxJournal(directory, segmentMaxBytes, maxSegments);
+            } catch (IOException e) {
+                Viscord.LOGGER.error("[Discord] Failed to open the outbox, messages will not survive outages", e);
+                this.journal = null;
+                return;
+            }
+            if (journal.getBacklog() == 0) {
+                return;
+            }
+            // Each transport replays its own leftovers and goes live once they are out
+            for (Spool spool : spools.values()) {
+                spool.spooling = true;
+            }
+        }
+        resume();
+    }
+
+    public CompletableFuture<Void> sendWebhookMessage(String username, String avatarUrl, String content) {
+        byte[] payload = WebhookClient.messagePayload(username, avatarUrl, content);
+        return submit(OutboxJournal.Type.WEBHOOK, OutboundScheduler.Lane.CHAT, username,
+                () -> new String(payload, StandardCharsets.UTF_8),
+                () -> webhookClient.sendPayload(username, payload));
+    }
+
+    public CompletableFuture<Void> sendEmbed(String channelId, OutboundScheduler.Lane lane, OutgoingEmbed embed) {
+        Supplier<CompletableFuture<Void>> send = () -> botClient.sendEmbed(channelId, embed).thenApply(message -> null);
+        if (botClient.isDisabled()) {
+            // No bot token: the embed can never be delivered, so there is nothing to keep
+            return scheduler.submit(lane, send);
+        }
+        // Live sends hand the typed embed to the bot; JSON is only written for the journal
+        return submit(OutboxJournal.Type.EMBED, lane, channelId, embed::toJson, send);
+    }
+
+    /**
+     * Journals a payload and sends it, unless its transport is spooling, in
+     * which case the returned future completes as soon as the payload is on disk.
+     */
+    private CompletableFuture<Void> submit(OutboxJournal.Type type, OutboundScheduler.Lane lane, String key,
+            Supplier<String> payload, Supplier<CompletableFuture<Void>> send) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            writer.execute(() -> journalAndSend(type, lane, key, payload, send).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(null);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            Viscord.LOGGER.debug("[Discord] Outbox writer behind, sending {} message without journaling it", type);
+            return schedule(type, lane, send);
+        }
+        return result;
+    }
+
+    /**
+     * Runs on the writer thread.
+     */
+    private CompletableFuture<Void> journalAndSend(OutboxJournal.Type type, OutboundScheduler.Lane lane, String key,
+            Supplier<String> payload, Supplier<CompletableFuture<Void>> send) {
+        Spool spool = spools.get(type);
+        long seq;
+        int gen;
+        synchronized (this) {
+            gen = generation;
+            seq = journal == null || closed ? -1 : journal.append(type, lane, key, payload.get());
+            if (seq >= 0) {
+                if (spool.spooling) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                inFlight.add(seq);
+                spool.liveInFlight++;
+            }
+        }
+        if (seq < 0) {
+            return schedule(type, lane, send);
+        }
+        return schedule(type, lane, send).whenComplete((ignored, error) -> onLiveResult(spool, gen, seq, error));
+    }
+
+    /**
+     * Tries to replay the journal now, e.g. after the bot (re)connected.
+     */
+    public void resume() {
+        for (Spool spool : spools.values()) {
+            resume(spool);
+        }
+    }
+
+    private void resume(Spool spool) {
+        synchronized (this) {
+            if (!spool.spooling || closed || journal == null) {
+                return;
+            }
+            if (spool.retryTimer != null) {
+                spool.retryTimer.cancel(false);
+                spool.retryTimer = null;
+            }
+            if (spool.replayInFlight > 0) {
+                // A pass is still running; it picks up from its cursor
+                return;
+            }
+            spool.passFailed = false;
+            spool.cursor = journal.newCursor();
+            Viscord.LOGGER.info("[Discord] Replaying {} outbox messages", spool.name());
+        }
+        replayNext(spool);
+    }
+
+    /**
+     * Number of journaled payloads not yet delivered.
+     */
+    public synchronized long getBacklog() {
+        return journal == null ? 0 : journal.getBacklog();
+    }
+
+    /**
+     * True while any transport is spooling.
+     */
+    public synchronized boolean isSpooling() {
+        for (Spool spool : spools.values()) {
+            if (spool.spooling) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stops replaying and closes the journal. Anything not yet acknowledged is
+     * replayed on the next start. Waits up to a second for queued journal writes.
+     */
+    public void close() {
+        try {
+            writer.submit(() -> {
+            }).get(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Viscord.LOGGER.warn("[Discord] Outbox writes still pending at shutdown, they may not be kept");
+        }
+        synchronized (this) {
+            closed = true;
+            for (Spool spool : spools.values()) {
+                if (spool.retryTimer != null) {
+                    spool.retryTimer.cancel(false);
+                    spool.retryTimer = null;
+                }
+            }
+            if (journal != null) {
+                long backlog = journal.getBacklog();
+                if (backlog > 0) {
+                    Viscord.LOGGER.info("[Discord] {} undelivered messages kept in the outbox for the next start", backlog);
+                }
+                journal.close();
+            }
+        }
+    }
+
+    // =================================================================================
+    // Delivery
+    // =================================================================================
+
+    /**
+     * Sends a journaled payload again.
+     */
+    private CompletableFuture<Void> dispatch(OutboxJournal.Type type, OutboundScheduler.Lane lane, String key,
+            String payload) {
+        if (type == OutboxJournal.Type.WEBHOOK) {
+            return schedule(type, lane, () -> webhookClient.sendPayload(key, payload.getBytes(StandardCharsets.UTF_8)));
+        }
+        return schedule(type, lane, () -> botClient.sendEmbed(key, OutgoingEmbed.fromJson(payload))
+                .thenApply(message -> null));
+    }
+
+    /**
+     * Webhook sends only need a scheduler slot until the webhook queue took them;
+     * that queue does its own bounding and pacing.
+     */
+    private CompletableFuture<Void> schedule(OutboxJournal.Type type, OutboundScheduler.Lane lane,
+            Supplier<CompletableFuture<Void>> send) {
+        return type == OutboxJournal.Type.WEBHOOK ? scheduler.submitQueued(lane, send) : scheduler.submit(lane, send);
+    }
+
+    private void onLiveResult(Spool spool, int gen, long seq, Throwable error) {
+        synchronized (this) {
+            if (gen != generation) {
+                return;
+            }
+            inFlight.remove(seq);
+            spool.liveInFlight--;
+            boolean retryable = isRetryable(error);
+            if (!retryable) {
+                journal.ack(seq);
+            }
+            if (closed) {
+                return;
+            }
+
+            if (!spool.spooling) {
+                if (retryable) {
+                    Viscord.LOGGER.warn("[Discord] Discord unreachable ({}), spooling outgoing {} messages to the outbox",
+                            rootMessage(error), spool.name());
+                    spool.spooling = true;
+                    scheduleRetry(spool);
+                }
+                return;
+            }
+
+            if (retryable) {
+                // Make sure the next pass starts over and picks this one up again
+                spool.passFailed = true;
+                if (spool.replayInFlight == 0) {
+                    scheduleRetry(spool);
+                }
+                return;
+            }
+            if (spool.passFailed || spool.replayInFlight > 0) {
+                return;
+            }
+        }
+        // A replay pass may have been waiting for this live send to settle
+        replayNext(spool);
+    }
+
+    /**
+     * Sends the transport's next journaled payloads, keeping at most
+     * {@code replayBatch} in flight. Switches it back to live sending once its
+     * part of the journal has been fully delivered.
+     *
+     * Sends that fail straight away (bot not configured, unknown channel)
+     * complete while they are being dispatched; their callbacks ask the loop
+     * that is already running to go round again instead of recursing.
+     */
+    private void replayNext(Spool spool) {
+        synchronized (this) {
+            if (spool.replaying) {
+                spool.replayRequested = true;
+                return;
+            }
+            spool.replaying = true;
+        }
+
+        List<OutboxJournal.Entry> toSend = new ArrayList<>();
+        while (true) {
+            int gen;
+            synchronized (this) {
+                gen = generation;
+                spool.replayRequested = false;
+                if (!spool.spooling || closed || spool.passFailed || spool.cursor == null) {
+                    spool.replaying = false;
+                    return;
+                }
+                while (spool.replayInFlight + toSend.size() < replayBatch) {
+                    List<OutboxJournal.Entry> entries = journal.read(spool.cursor, spool.type,
+                            replayBatch - spool.replayInFlight - toSend.size());
+                    if (entries.isEmpty()) {
+                        break;
+                    }
+                    for (OutboxJournal.Entry entry : entries) {
+                        // Live sends from before the outage may still be on their way
+                        if (inFlight.add(entry.seq)) {
+                            toSend.add(entry);
+                        }
+                    }
+                }
+                spool.replayInFlight += toSend.size();
+
+                if (toSend.isEmpty() && spool.replayInFlight == 0 && spool.liveInFlight == 0) {
+                    spool.spooling = false;
+                    spool.retryDelayMs = MIN_RETRY_MS;
+                    spool.cursor = null;
+                    spool.replaying = false;
+                    Viscord.LOGGER.info("[Discord] Outbox drained, {} messages back to live delivery", spool.name());
+                    return;
+                }
+            }
+
+            for (OutboxJournal.Entry entry : toSend) {
+                dispatch(entry.type, entry.lane, entry.key, entry.payload)
+                        .whenComplete((ignored, error) -> onReplayResult(spool, gen, entry, error));
+            }
+            toSend.clear();
+
+            synchronized (this) {
+                if (!spool.replayRequested) {
+                    spool.replaying = false;
+                    return;
+                }
+            }
+        }
+    }
+
+    private void onReplayResult(Spool spool, int gen, OutboxJournal.Entry entry, Throwable error) {
+        synchronized (this) {
+            if (gen != generation) {
+                return;
+            }
+            spool.replayInFlight--;
+            inFlight.remove(entry.seq);
+            if (!isRetryable(error)) {
+                if (error != null) {
+                    Viscord.LOGGER.warn("[Discord] Dropping outbox message that Discord rejected: {}", rootMessage(error));
+                }
+                journal.ack(entry.seq);
+            } else {
+                spool.passFailed = true;
+            }
+
+            if (closed) {
+                return;
+            }
+            if (spool.passFailed) {
+                // Let the rest of this pass settle, then start over from the oldest payload
+                if (spool.replayInFlight == 0) {
+                    scheduleRetry(spool);
+                }
+                return;
+            }
+        }
+        replayNext(spool);
+    }
+
+    private void scheduleRetry(Spool spool) {
+        if (spool.retryTimer != null) {
+            return;
+        }
+        long delay = spool.retryDelayMs;
+        spool.retryDelayMs = Math.min(spool.retryDelayMs * 2, MAX_RETRY_MS);
+        Viscord.LOGGER.debug("[Discord] Retrying {} outbox delivery in {} ms ({} queued)", spool.name(), delay,
+                journal.getBacklog());
+        spool.retryTimer = Viscord.schedule(() -> {
+            synchronized (this) {
+                spool.retryTimer = null;
+            }
+            resume(spool);
+        }, delay);
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error == null) {
+            return false;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof DeliveryException && ((DeliveryException) cause).isRetryable();
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage();
+    }
+
+    /**
+     * Spooling state of one transport. Guarded by the relay.
+     */
+    private static final class Spool {
+        final OutboxJournal.Type type;
+        boolean spooling = false;
+        boolean passFailed = false;
+        OutboxJournal.Cursor cursor;
+        int replayInFlight = 0;
+        int liveInFlight = 0;
+        long retryDelayMs = MIN_RETRY_MS;
+        ScheduledFuture<?> retryTimer;
+        // A thread is in replayNext; others only ask it to go round again
+        boolean replaying = false;
+        boolean replayRequested = false;
+
+        Spool(OutboxJournal.Type type) {
+            this.type = type;
+        }
+
+        /**
+         * Forgets everything from a previous run; the cursor pointed into its journal.
+         */
+        void reset() {
+            if (retryTimer != null) {
+                retryTimer.cancel(false);
+                retryTimer = null;
+            }
+            spooling = false;
+            passFailed = false;
+            cursor = null;
+            replayInFlight = 0;
+            liveInFlight = 0;
+            retryDelayMs = MIN_RETRY_MS;
+            replaying = false;
+            replayRequested = false;
+        }
+
+        String name() {
+            return type.name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
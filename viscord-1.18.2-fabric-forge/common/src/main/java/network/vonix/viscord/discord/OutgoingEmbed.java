@@ -0,0 +1,179 @@
+package network.vonix.viscord.discord;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable embed we send to Discord (as opposed to Javacord's
+ * {@code Embed}, which describes received ones). Built by {@link EmbedFactory} and rendered
+ * straight to the transport that sends it: a webhook/journal JSON object
+ * written in one pass, or a Javacord builder in {@link BotClient}.
+ */
+public final class OutgoingEmbed {
+
+    /**
+     * A name/value field.
+     */
+    public static final class Field {
+        public final String name;
+        public final String value;
+        public final boolean inline;
+
+        public Field(String name, String value, boolean inline) {
+            this.name = name;
+            this.value = value;
+            this.inline = inline;
+        }
+    }
+
+    public final String title;
+    public final String description;
+    // Null when no color is set
+    public final Integer color;
+    public final List<Field> fields;
+    public final String footerText;
+    public final String thumbnailUrl;
+
+    private OutgoingEmbed(Builder builder) {
+        this.title = builder.title;
+        this.description = builder.description;
+        this.color = builder.color;
+        this.fields = builder.fields.isEmpty()
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(builder.fields));
+        this.footerText = builder.footerText;
+        this.thumbnailUrl = builder.thumbnailUrl;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // =================================================================================
+    // JSON
+    // =================================================================================
+
+    /**
+     * Writes this embed as a JSON object in Discord's embed format.
+     */
+    public void writeTo(JsonWriter out) throws IOException {
+        out.beginObject();
+        if (title != null) out.name("title").value(title);
+        if (description != null) out.name("description").value(description);
+        if (color != null) out.name("color").value(color);
+        if (!fields.isEmpty()) {
+            out.name("fields").beginArray();
+            for (Field field : fields) {
+                out.beginObject()
+                        .name("name").value(field.name)
+                        .name("value").value(field.value)
+                        .name("inline").value(field.inline)
+                        .endObject();
+            }
+            out.endArray();
+        }
+        if (footerText != null) {
+            out.name("footer").beginObject().name("text").value(footerText).endObject();
+        }
+        if (thumbnailUrl != null) {
+            out.name("thumbnail").beginObject().name("url").value(thumbnailUrl).endObject();
+        }
+        out.endObject();
+    }
+
+    public String toJson() {
+        StringWriter buffer = new StringWriter(256);
+        try (JsonWriter out = new JsonWriter(buffer)) {
+            writeTo(out);
+        } catch (IOException e) {
+            // StringWriter does not throw
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Reads an embed written by {@link #toJson()} (e.g. from the outbox journal).
+     */
+    public static OutgoingEmbed fromJson(String json) {
+        JsonObject object = JsonParser.parseString(json).getAsJsonObject();
+        Builder builder = builder();
+        if (object.has("title")) builder.title(object.get("title").getAsString());
+        if (object.has("description")) builder.description(object.get("description").getAsString());
+        if (object.has("color")) builder.color(object.get("color").getAsInt());
+        if (object.has("fields")) {
+            JsonArray fields = object.getAsJsonArray("fields");
+            for (JsonElement element : fields) {
+                JsonObject field = element.getAsJsonObject();
+                builder.field(field.get("name").getAsString(), field.get("value").getAsString(),
+                        field.has("inline") && field.get("inline").getAsBoolean());
+            }
+        }
+        if (object.has("footer")) builder.footer(object.getAsJsonObject("footer").get("text").getAsString());
+        if (object.has("thumbnail")) builder.thumbnail(object.getAsJsonObject("thumbnail").get("url").getAsString());
+        return builder.build();
+    }
+
+    // =================================================================================
+    // Builder
+    // =================================================================================
+
+    public static final class Builder {
+        private String title;
+        private String description;
+        private Integer color;
+        private final List<Field> fields = new ArrayList<>(3);
+        private String footerText;
+        private String thumbnailUrl;
+
+        private Builder() {
+        }
+
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        public Builder color(int color) {
+            this.color = color;
+            return this;
+        }
+
+        public Builder field(String name, String value, boolean inline) {
+            fields.add(new Field(name, value, inline));
+            return this;
+        }
+
+        public Builder footer(String text) {
+            this.footerText = text;
+            return this;
+        }
+
+        /**
+         * Sets the thumbnail; null or empty URLs are ignored.
+         */
+        public Builder thumbnail(String url) {
+            this.thumbnailUrl = url == null || url.isEmpty() ? null : url;
+            return this;
+        }
+
+        public OutgoingEmbed build() {
+            return new OutgoingEmbed(this);
+        }
+    }
+}
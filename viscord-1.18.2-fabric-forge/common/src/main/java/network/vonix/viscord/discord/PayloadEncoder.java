@@ -0,0 +1,186 @@
+package network.vonix.viscord.discord;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes webhook JSON payloads straight to UTF-8 bytes, ready for the HTTP
+ * request body. Each thread reuses one scratch buffer, and the constant parts
+ * of a payload are encoded once, so a chat message costs a single array of
+ * its final size.
+ */
+final class PayloadEncoder {
+
+    private static final byte[] USERNAME = ascii("{\"username\":");
+    private static final byte[] AVATAR_URL = ascii(",\"avatar_url\":");
+    private static final byte[] CONTENT = ascii(",\"content\":");
+    private static final byte[] EMBEDS = ascii(",\"embeds\":[");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    // Scratch buffers that grew past this are not kept for reuse
+    private static final int MAX_RETAINED = 64 * 1024;
+
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    private PayloadEncoder() {
+    }
+
+    /**
+     * {"username":..,"avatar_url":..,"content":..}; avatar_url is left out when null.
+     */
+    static byte[] message(String username, String avatarUrl, String content) {
+        Buffer out = BUFFERS.get();
+        out.reset();
+        out.write(USERNAME);
+        out.string(username);
+        if (avatarUrl != null) {
+            out.write(AVATAR_URL);
+            out.string(avatarUrl);
+        }
+        out.write(CONTENT);
+        out.string(content);
+        out.write('}');
+        return out.finish();
+    }
+
+    /**
+     * {"username":..,"avatar_url":..,"embeds":[embed]}; avatar_url is left out when null.
+     */
+    static byte[] embed(String username, String avatarUrl, OutgoingEmbed embed) {
+        Buffer out = BUFFERS.get();
+        out.reset();
+        out.write(USERNAME);
+        out.string(username);
+        if (avatarUrl != null) {
+            out.write(AVATAR_URL);
+            out.string(avatarUrl);
+        }
+        out.write(EMBEDS);
+        try {
+            JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            embed.writeTo(writer);
+            writer.flush();
+        } catch (IOException e) {
+            // The buffer does not throw
+            throw new UncheckedIOException(e);
+        }
+        out.write(']');
+        out.write('}');
+        return out.finish();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Growable byte buffer with a JSON string encoder.
+     */
+    private static final class Buffer extends OutputStream {
+        private byte[] bytes = new byte[512];
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        byte[] finish() {
+            byte[] result = Arrays.copyOf(bytes, size);
+            if (bytes.length > MAX_RETAINED) {
+                bytes = new byte[512];
+            }
+            size = 0;
+            return result;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b) {
+            write(b, 0, b.length);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, bytes, size, len);
+            size += len;
+        }
+
+        /**
+         * Writes a quoted, escaped JSON string (or null) as UTF-8.
+         */
+        void string(String value) {
+            if (value == null) {
+                write(NULL);
+                return;
+            }
+            int length = value.length();
+            // Enough for most text (up to 3 bytes per char); escapes grow further as needed
+            ensure(length * 3 + 2);
+            write('"');
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        write('\\');
+                        write(c);
+                    } else if (c >= 0x20) {
+                        write(c);
+                    } else if (c == '\n') {
+                        write('\\');
+                        write('n');
+                    } else if (c == '\r') {
+                        write('\\');
+                        write('r');
+                    } else if (c == '\t') {
+                        write('\\');
+                        write('t');
+                    } else {
+                        write('\\');
+                        write('u');
+                        write('0');
+                        write('0');
+                        write(HEX[c >> 4]);
+                        write(HEX[c & 0xF]);
+                    }
+                } else if (c < 0x800) {
+                    write(0xC0 | (c >> 6));
+                    write(0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    write(0xF0 | (cp >> 18));
+                    write(0x80 | ((cp >> 12) & 0x3F));
+                    write(0x80 | ((cp >> 6) & 0x3F));
+                    write(0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // Unpaired surrogate, same replacement as String.getBytes
+                    write('?');
+                } else {
+                    write(0xE0 | (c >> 12));
+                    write(0x80 | ((c >> 6) & 0x3F));
+                    write(0x80 | (c & 0x3F));
+                }
+            }
+            write('"');
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package network.vonix.viscord.discord;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One webhook URL in the webhook pool, with its own outbound queue
+ * and health counters.
+ */
+public class WebhookEndpoint {
+
+    /**
+     * Health of an endpoint as seen by the pool.
+     */
+    public enum State {
+        /** Accepting and delivering messages. */
+        HEALTHY,
+        /** Currently waiting for its rate-limit bucket to reset. */
+        RATE_LIMITED,
+        /** Discord reported the webhook as missing or unauthorized; no longer used. */
+        DEAD
+    }
+
+    private final int index;
+    private final String url;
+    private final OutboundQueue<WebhookClient.PendingPayload> queue;
+    private final DiscordRateLimiter rateLimiter;
+
+    private volatile boolean dead = false;
+    private volatile boolean retired = false;
+    private volatile int lastErrorCode = 0;
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+
+    // Set while a payload from this endpoint is being sent or waiting to be retried
+    private final AtomicBoolean sending = new AtomicBoolean(false);
+
+    WebhookEndpoint(int index, String url, OutboundQueue<WebhookClient.PendingPayload> queue,
+            DiscordRateLimiter rateLimiter) {
+        this.index = index;
+        this.url = url;
+        this.queue = queue;
+        this.rateLimiter = rateLimiter;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    OutboundQueue<WebhookClient.PendingPayload> getQueue() {
+        return queue;
+    }
+
+    /**
+     * Current state. Rate limiting is read live from the shared limiter.
+     */
+    public State getState() {
+        if (dead) {
+            return State.DEAD;
+        }
+        return rateLimiter.getDelayMillis(url) > 0 ? State.RATE_LIMITED : State.HEALTHY;
+    }
+
+    public boolean isDead() {
+        return dead;
+    }
+
+    void markDead(int errorCode) {
+        this.dead = true;
+        this.lastErrorCode = errorCode;
+    }
+
+    /**
+     * True once the endpoint has been replaced by a pool reconfiguration.
+     */
+    boolean isRetired() {
+        return retired;
+    }
+
+    void retire() {
+        this.retired = true;
+    }
+
+    /**
+     * Claims the endpoint for the next send. Only one payload per endpoint is
+     * in flight at a time, which is what keeps the endpoint's messages in order.
+     */
+    boolean tryBeginSend() {
+        return sending.compareAndSet(false, true);
+    }
+
+    void endSend() {
+        sending.set(false);
+    }
+
+    void recordSent() {
+        sentCount.incrementAndGet();
+    }
+
+    void recordFailed(int errorCode) {
+        failedCount.incrementAndGet();
+        lastErrorCode = errorCode;
+    }
+
+    void recordRateLimited() {
+        rateLimitedCount.incrementAndGet();
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return queue.getDroppedCount();
+    }
+
+    /**
+     * Last HTTP error code seen on this endpoint, or 0 if none (-1 for I/O errors).
+     */
+    public int getLastErrorCode() {
+        return lastErrorCode;
+    }
+}
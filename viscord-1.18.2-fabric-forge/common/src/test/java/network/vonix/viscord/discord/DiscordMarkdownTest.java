@@ -0,0 +1,144 @@
+package network.vonix.viscord.discord;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.Style;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rendering of {@link DiscordMarkdown}: nesting, delimiters that never close,
+ * and inputs built to make a backtracking parser go quadratic.
+ */
+class DiscordMarkdownTest {
+
+    // Far past MAX_INPUT, so a quadratic tokenizer would take minutes
+    private static final int PATHOLOGICAL_LENGTH = 200_000;
+
+    private static final String[] PATHOLOGICAL_UNITS = {
+            "*_~|",          // delimiter runs of every kind, none of them closing
+            "**a __b ~~c ",  // openers that pile up on the stack
+            "[",             // brackets without a ']'
+            "[a](https://x", // masked links whose ')' never comes
+            "<https://",     // angle links without a '>'
+            "`` `",          // backtick runs without a matching closer
+            "\\"             // a lone backslash
+    };
+
+    @Test
+    void rendersNestedEmphasis() {
+        MutableComponent rendered = DiscordMarkdown.render("**bold *both* bold**");
+
+        assertEquals("bold both bold", rendered.getString());
+        Style outer = styleOf(rendered, "bold ");
+        assertTrue(outer.isBold());
+        assertFalse(outer.isItalic());
+        Style inner = styleOf(rendered, "both");
+        assertTrue(inner.isBold());
+        assertTrue(inner.isItalic());
+    }
+
+    @Test
+    void showsUnpairedDelimitersAsTyped() {
+        String[] inputs = {"**never closed", "a ~~ b", "*", "***", "__a", "||spoiler", "a * b * c", "snake_case_name"};
+        for (String input : inputs) {
+            assertEquals(input, DiscordMarkdown.render(input).getString(), input);
+        }
+    }
+
+    @Test
+    void closingOuterDelimiterLeavesInnerOneAsTyped() {
+        MutableComponent rendered = DiscordMarkdown.render("**a *b** c");
+
+        assertEquals("a *b c", rendered.getString());
+        assertTrue(styleOf(rendered, "a *b").isBold());
+        assertFalse(styleOf(rendered, " c").isBold());
+    }
+
+    @Test
+    void leavesUnclosedCodeAndLinksAsTyped() {
+        String[] inputs = {"`code", "```block", "``a`", "[label](https://example.com", "[label]", "[label](not a url)",
+                "<https://example.com"};
+        for (String input : inputs) {
+            assertEquals(input, DiscordMarkdown.render(input).getString(), input);
+        }
+    }
+
+    @Test
+    void codeIsNotParsedForEmphasis() {
+        MutableComponent rendered = DiscordMarkdown.render("`a *b* c`");
+
+        assertEquals("a *b* c", rendered.getString());
+        assertFalse(styleOf(rendered, "a *b* c").isItalic());
+    }
+
+    @Test
+    void rendersMaskedLinks() {
+        MutableComponent rendered = DiscordMarkdown.render("see [docs](https://example.com/a_b) now");
+
+        assertEquals("see docs now", rendered.getString());
+        Style link = styleOf(rendered, "docs");
+        assertNotNull(link.getClickEvent());
+        assertEquals("https://example.com/a_b", link.getClickEvent().getValue());
+    }
+
+    @Test
+    void escapedDelimitersStayLiteral() {
+        assertEquals("*not italic*", DiscordMarkdown.render("\\*not italic\\*").getString());
+    }
+
+    @Test
+    void cutsOffInputPastTheLimit() {
+        String rendered = DiscordMarkdown.render("a".repeat(DiscordMarkdown.MAX_INPUT + 10)).getString();
+
+        assertEquals(DiscordMarkdown.MAX_INPUT + 1, rendered.length());
+    }
+
+    @Test
+    void tokenizesPathologicalInputInLinearTime() {
+        for (String unit : PATHOLOGICAL_UNITS) {
+            String input = unit.repeat(PATHOLOGICAL_LENGTH / unit.length());
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> new DiscordMarkdown.Tokenizer(input).tokenize(),
+                    "tokenizing " + input.length() + " characters of \"" + unit + "\"");
+        }
+    }
+
+    @Test
+    void rendersPathologicalInputUpToTheLimit() {
+        for (String unit : PATHOLOGICAL_UNITS) {
+            String input = unit.repeat(DiscordMarkdown.MAX_INPUT / unit.length() + 1);
+            String rendered = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                    () -> DiscordMarkdown.render(input).getString(), "rendering \"" + unit + "\"");
+            assertFalse(rendered.isEmpty());
+        }
+    }
+
+    /**
+     * Style of the first component, depth first, whose own text is exactly {@code text}.
+     */
+    private static Style styleOf(Component root, String text) {
+        Style style = find(root, text);
+        assertNotNull(style, "no component with text \"" + text + "\"");
+        return style;
+    }
+
+    private static Style find(Component component, String text) {
+        if (component.getSiblings().isEmpty() && component.getString().equals(text)) {
+            return component.getStyle();
+        }
+        for (Component sibling : component.getSiblings()) {
+            Style style = find(sibling, text);
+            if (style != null) {
+                return style;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,109 @@
+package network.vonix.viscord.discord;
+
+import org.javacord.api.entity.message.embed.Embed;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link EmbedClassifier} against the detector chain it replaced, and its
+ * handling of embeds tagged with an {@link EmbedEnvelope}.
+ */
+class EmbedClassifierTest {
+
+    static final String[] FOOTERS = {
+            null, "", "Viscord · Join", "Viscord · Leave", "Viscord · Death", "JOIN EVENT", "Rejoined",
+            "Advancement", "Goal Reached", "Challenge Complete", "Task", "Viscord · Player List", "player list",
+            "Powered by SomeBot", "left the game"
+    };
+
+    static final String[] TITLES = {
+            null, "", "Player Joined", "✅ Player Joined", "Player Left", "💀 Player Died!", "Steve joined the game",
+            "Alex left", "Steve died", "Challenge Complete!", "Goal Reached", "Advancement Made",
+            "📋 Survival - Player List", "Server Status", "server status", "playlist", "Hello there"
+    };
+
+    private final EmbedClassifier classifier = new EmbedClassifier();
+    private final AdvancementEmbedDetector advancementDetector = new AdvancementEmbedDetector();
+    private final EventEmbedDetector eventDetector = new EventEmbedDetector();
+
+    @Test
+    void agreesWithTheDetectorChain() {
+        for (String footer : FOOTERS) {
+            for (String title : TITLES) {
+                Embed embed = new FakeEmbed(title, footer);
+                EmbedClassifier.Classification classification = classifier.classify(embed);
+
+                EmbedClassifier.Kind expected = chainKind(embed);
+                assertEquals(expected, classification.getKind(), embed.toString());
+                if (expected == EmbedClassifier.Kind.ADVANCEMENT) {
+                    assertEquals(advancementDetector.getAdvancementType(embed), classification.getAdvancementType(),
+                            embed.toString());
+                } else if (expected == EmbedClassifier.Kind.EVENT) {
+                    assertEquals(eventDetector.getEventType(embed), classification.getEventType(), embed.toString());
+                }
+                assertNull(classification.getPlayerName(), embed.toString());
+            }
+        }
+    }
+
+    @Test
+    void classifiesMissingEmbedAsOther() {
+        assertEquals(EmbedClassifier.Kind.OTHER, classifier.classify(null).getKind());
+    }
+
+    @Test
+    void envelopeWinsOverKeywords() {
+        // The title alone would make this a challenge advancement
+        String footer = EmbedEnvelope.tag("Viscord", EmbedEnvelope.Kind.JOIN, "Steve");
+        EmbedClassifier.Classification classification = classifier.classify(new FakeEmbed("Challenge Complete!", footer));
+
+        assertEquals(EmbedClassifier.Kind.EVENT, classification.getKind());
+        assertEquals(EventEmbedDetector.EventType.JOIN, classification.getEventType());
+        assertEquals("Steve", classification.getPlayerName());
+    }
+
+    @Test
+    void mapsEveryEnvelopeKind() {
+        assertTagged(EmbedEnvelope.Kind.JOIN, EmbedClassifier.Kind.EVENT, EventEmbedDetector.EventType.JOIN, null);
+        assertTagged(EmbedEnvelope.Kind.LEAVE, EmbedClassifier.Kind.EVENT, EventEmbedDetector.EventType.LEAVE, null);
+        assertTagged(EmbedEnvelope.Kind.DEATH, EmbedClassifier.Kind.EVENT, EventEmbedDetector.EventType.DEATH, null);
+        assertTagged(EmbedEnvelope.Kind.ADVANCEMENT, EmbedClassifier.Kind.ADVANCEMENT, null, AdvancementType.NORMAL);
+        assertTagged(EmbedEnvelope.Kind.GOAL, EmbedClassifier.Kind.ADVANCEMENT, null, AdvancementType.GOAL);
+        assertTagged(EmbedEnvelope.Kind.CHALLENGE, EmbedClassifier.Kind.ADVANCEMENT, null, AdvancementType.CHALLENGE);
+        assertTagged(EmbedEnvelope.Kind.PLAYER_LIST, EmbedClassifier.Kind.PLAYER_LIST, null, null);
+        // Digests and status messages are shown as they are, even with event words in them
+        assertTagged(EmbedEnvelope.Kind.DIGEST, EmbedClassifier.Kind.OTHER, null, null);
+        assertTagged(EmbedEnvelope.Kind.STATUS, EmbedClassifier.Kind.OTHER, null, null);
+    }
+
+    private void assertTagged(EmbedEnvelope.Kind tag, EmbedClassifier.Kind kind, EventEmbedDetector.EventType eventType,
+            AdvancementType advancementType) {
+        String footer = EmbedEnvelope.tag("Viscord · Player Joined", tag, "Alex");
+        EmbedClassifier.Classification classification = classifier.classify(new FakeEmbed("Server Status", footer));
+
+        assertEquals(kind, classification.getKind(), tag.name());
+        if (eventType != null) {
+            assertEquals(eventType, classification.getEventType(), tag.name());
+        }
+        if (advancementType != null) {
+            assertEquals(advancementType, classification.getAdvancementType(), tag.name());
+        }
+    }
+
+    /**
+     * What the old chain in DiscordManager decided: advancement, then event, then player list.
+     */
+    private EmbedClassifier.Kind chainKind(Embed embed) {
+        if (advancementDetector.isAdvancementEmbed(embed)) {
+            return EmbedClassifier.Kind.ADVANCEMENT;
+        }
+        if (eventDetector.isEventEmbed(embed)) {
+            return EmbedClassifier.Kind.EVENT;
+        }
+        boolean playerList = embed.getFooter().flatMap(f -> f.getText()).map(t -> t.contains("Player List")).orElse(false)
+                || embed.getTitle().map(t -> t.contains("List") || t.contains("Status")).orElse(false);
+        return playerList ? EmbedClassifier.Kind.PLAYER_LIST : EmbedClassifier.Kind.OTHER;
+    }
+}
@@ -0,0 +1,66 @@
+package network.vonix.viscord.discord;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * In-flight limits of {@link OutboundScheduler}, with sends that never finish
+ * until the test completes them.
+ */
+class OutboundSchedulerTest {
+
+    @Test
+    void laneTakesAtMostHalfOfTheSlots() {
+        OutboundScheduler scheduler = new OutboundScheduler();
+        scheduler.configure(8, 100, 50, 30000);
+        List<CompletableFuture<Void>> started = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.submit(OutboundScheduler.Lane.CHAT, () -> track(started));
+        }
+
+        assertEquals(4, started.size());
+        assertEquals(6, scheduler.getQueuedCount(OutboundScheduler.Lane.CHAT));
+
+        // A finished send lets the next one start
+        started.get(0).complete(null);
+        assertEquals(5, started.size());
+    }
+
+    @Test
+    void queuedSendsFreeTheirSlotOnceHandedOver() throws Exception {
+        OutboundScheduler scheduler = new OutboundScheduler();
+        scheduler.configure(8, 100, 50, 30000);
+        List<CompletableFuture<Void>> started = new ArrayList<>();
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(scheduler.submitQueued(OutboundScheduler.Lane.CHAT, () -> track(started)));
+        }
+
+        // Every send reached the transport, none of them is delivered yet
+        assertEquals(20, started.size());
+        assertEquals(0, scheduler.getQueuedCount(OutboundScheduler.Lane.CHAT));
+        assertFalse(results.get(0).isDone());
+
+        // The result still follows delivery
+        started.get(0).complete(null);
+        results.get(0).get(1, TimeUnit.SECONDS);
+        started.get(1).completeExceptionally(new DeliveryException("HTTP 500", true));
+        assertTrue(results.get(1).isCompletedExceptionally());
+    }
+
+    private static CompletableFuture<Void> track(List<CompletableFuture<Void>> started) {
+        CompletableFuture<Void> send = new CompletableFuture<>();
+        started.add(send);
+        return send;
+    }
+}
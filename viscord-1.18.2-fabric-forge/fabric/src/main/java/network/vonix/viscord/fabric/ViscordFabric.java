@@ -37,7 +37,8 @@ public final class ViscordFabric implements DedicatedServerModInitializer {
                 String username = player.getGameProfile().getName();
                 String uuid = player.getUUID().toString();
 
-                // Send to Discord
+                // Send to Discord. 1.18.2 chat carries no timestamp or salt to key it by, and this
+                // is the only capture point, so it is relayed without a dedupe key
                 DiscordManager.getInstance().sendChatMessage(username, content, uuid);
             }
         });
@@ -0,0 +1,71 @@
+package network.vonix.viscord.discord;
+
+import net.minecraft.network.chat.MutableComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Markdown rendering of a full-size (4096 character) message, for ordinary
+ * chat and for inputs built to make a backtracking parser blow up. The
+ * adversarial cases should cost about as much as the ordinary ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiscordMarkdownBenchmark {
+
+    @Param({"plain", "markdown", "delimiters", "openers", "brackets", "links", "backticks"})
+    public String input;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        String unit;
+        switch (input) {
+            case "plain":
+                unit = "just some ordinary chat without any formatting in it ";
+                break;
+            case "markdown":
+                unit = "**bold** and *italic* with `code`, ||a spoiler|| and [a link](https://example.com) ";
+                break;
+            case "delimiters":
+                unit = "*_~|";
+                break;
+            case "openers":
+                unit = "**a __b ~~c ";
+                break;
+            case "brackets":
+                unit = "[";
+                break;
+            case "links":
+                unit = "[a](https://x";
+                break;
+            case "backticks":
+                unit = "`` `";
+                break;
+            default:
+                throw new IllegalArgumentException(input);
+        }
+        text = unit.repeat(DiscordMarkdown.MAX_INPUT / unit.length() + 1).substring(0, DiscordMarkdown.MAX_INPUT);
+    }
+
+    @Benchmark
+    public List<DiscordMarkdown.Token> tokenize() {
+        return new DiscordMarkdown.Tokenizer(text).tokenize();
+    }
+
+    @Benchmark
+    public MutableComponent render() {
+        return DiscordMarkdown.render(text);
+    }
+}
@@ -0,0 +1,93 @@
+package network.vonix.viscord.discord;
+
+import org.javacord.api.entity.message.embed.Embed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifying a mix of inbound embeds with {@link EmbedClassifier} versus the
+ * detector chain it replaced, and with envelope-tagged embeds. Each
+ * invocation classifies the whole mix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmbedClassifierBenchmark {
+
+    private static final String[][] UNTAGGED = {
+            {"Player Joined", "Viscord · Join"},
+            {"💀 Player Died!", "Viscord · Death"},
+            {"Challenge Complete!", "Advancement · Challenge"},
+            {"Goal Reached", "Advancement"},
+            {"📋 Survival - Player List", "Viscord · Player List"},
+            {"Weekly update", "Powered by SomeBot"},
+            {"Steve left the game", null},
+            {null, null}
+    };
+
+    private final EmbedClassifier classifier = new EmbedClassifier();
+    private final AdvancementEmbedDetector advancementDetector = new AdvancementEmbedDetector();
+    private final EventEmbedDetector eventDetector = new EventEmbedDetector();
+
+    private Embed[] untagged;
+    private Embed[] tagged;
+
+    @Setup
+    public void setUp() {
+        List<Embed> embeds = new ArrayList<>();
+        for (String[] embed : UNTAGGED) {
+            embeds.add(new FakeEmbed(embed[0], embed[1]));
+        }
+        untagged = embeds.toArray(new Embed[0]);
+
+        EmbedEnvelope.Kind[] kinds = {EmbedEnvelope.Kind.JOIN, EmbedEnvelope.Kind.DEATH, EmbedEnvelope.Kind.CHALLENGE,
+                EmbedEnvelope.Kind.GOAL, EmbedEnvelope.Kind.PLAYER_LIST, EmbedEnvelope.Kind.STATUS};
+        tagged = new Embed[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            tagged[i] = new FakeEmbed(UNTAGGED[i][0], EmbedEnvelope.tag(UNTAGGED[i][1], kinds[i], "Steve"));
+        }
+    }
+
+    @Benchmark
+    public void classifier(Blackhole blackhole) {
+        for (Embed embed : untagged) {
+            blackhole.consume(classifier.classify(embed));
+        }
+    }
+
+    @Benchmark
+    public void classifierTagged(Blackhole blackhole) {
+        for (Embed embed : tagged) {
+            blackhole.consume(classifier.classify(embed));
+        }
+    }
+
+    /**
+     * The chain DiscordManager used to run: advancement, then event, then
+     * player list checks, each followed by its type lookup.
+     */
+    @Benchmark
+    public void detectorChain(Blackhole blackhole) {
+        for (Embed embed : untagged) {
+            if (advancementDetector.isAdvancementEmbed(embed)) {
+                blackhole.consume(advancementDetector.getAdvancementType(embed));
+            } else if (eventDetector.isEventEmbed(embed)) {
+                blackhole.consume(eventDetector.getEventType(embed));
+            } else {
+                blackhole.consume(embed.getFooter().flatMap(f -> f.getText())
+                        .map(t -> t.contains("Player List")).orElse(false)
+                        || embed.getTitle().map(t -> t.contains("List") || t.contains("Status")).orElse(false));
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package network.vonix.viscord.discord;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+
+/**
+ * Online players that receive each {@link InboundDelivery.Audience}, kept up to
+ * date on join, quit and filter changes so a broadcast walks a ready list
+ * instead of looking up every player's preferences. Server thread only.
+ *
+ * Entries are the players' connections rather than the players themselves,
+ * since the connection outlives the ServerPlayer replaced on respawn.
+ */
+public class AudienceIndex {
+
+    private final BiPredicate<InboundDelivery.Audience, UUID> filtered;
+    private final Map<UUID, ServerGamePacketListenerImpl> online = new HashMap<>();
+    private final Map<InboundDelivery.Audience, List<ServerGamePacketListenerImpl>> recipients =
+            new EnumMap<>(InboundDelivery.Audience.class);
+
+    // Set from any thread when preferences are (re)loaded; rebuilt on next use
+    private volatile boolean stale = true;
+
+    /**
+     * @param filtered returns true if the player has opted out of the audience
+     */
+    public AudienceIndex(BiPredicate<InboundDelivery.Audience, UUID> filtered) {
+        this.filtered = filtered;
+        for (InboundDelivery.Audience audience : InboundDelivery.Audience.values()) {
+            recipients.put(audience, new ArrayList<>());
+        }
+    }
+
+    public void add(ServerPlayer player) {
+        if (online.put(player.getUUID(), player.connection) != null) {
+            refresh(player.getUUID());
+            return;
+        }
+        for (InboundDelivery.Audience audience : InboundDelivery.Audience.values()) {
+            if (!filtered.test(audience, player.getUUID())) {
+                recipients.get(audience).add(player.connection);
+            }
+        }
+    }
+
+    public void remove(ServerPlayer player) {
+        ServerGamePacketListenerImpl connection = online.remove(player.getUUID());
+        if (connection != null) {
+            for (List<ServerGamePacketListenerImpl> list : recipients.values()) {
+                list.remove(connection);
+            }
+        }
+    }
+
+    /**
+     * Re-reads one player's preferences after they changed.
+     */
+    public void refresh(UUID playerUuid) {
+        ServerGamePacketListenerImpl connection = online.get(playerUuid);
+        if (connection == null) {
+            return;
+        }
+        for (InboundDelivery.Audience audience : InboundDelivery.Audience.values()) {
+            List<ServerGamePacketListenerImpl> list = recipients.get(audience);
+            list.remove(connection);
+            if (!filtered.test(audience, playerUuid)) {
+                list.add(connection);
+            }
+        }
+    }
+
+    /**
+     * Marks the whole index for a rebuild from the player list. Safe from any thread.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Connections that receive the given audience. The list is live; do not
+     * keep it across ticks.
+     */
+    public List<ServerGamePacketListenerImpl> recipients(MinecraftServer server, InboundDelivery.Audience audience) {
+        if (stale) {
+            rebuild(server);
+        }
+        return Collections.unmodifiableList(recipients.get(audience));
+    }
+
+    private void rebuild(MinecraftServer server) {
+        stale = false;
+        online.clear();
+        for (List<ServerGamePacketListenerImpl> list : recipients.values()) {
+            list.clear();
+        }
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            add(player);
+        }
+    }
+}
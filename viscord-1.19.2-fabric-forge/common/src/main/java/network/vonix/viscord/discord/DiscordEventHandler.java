@@ -5,6 +5,7 @@ import dev.architectury.event.EventResult;
 import dev.architectury.event.events.common.CommandRegistrationEvent;
 import dev.architectury.event.events.common.EntityEvent;
 import dev.architectury.event.events.common.PlayerEvent;
+import dev.architectury.event.events.common.TickEvent;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
@@ -26,6 +27,7 @@ public class DiscordEventHandler {
         });
 
         PlayerEvent.PLAYER_JOIN.register(player -> {
+            DiscordManager.getInstance().onPlayerConnected(player);
             if (DiscordManager.getInstance().isRunning()) {
                 DiscordManager.getInstance().sendJoinEmbed(player.getName().getString(), player.getUUID().toString());
                 // Schedule status update after delay to ensure accurate player count
@@ -34,6 +36,7 @@ public class DiscordEventHandler {
         });
 
         PlayerEvent.PLAYER_QUIT.register(player -> {
+            DiscordManager.getInstance().onPlayerDisconnected(player);
             if (DiscordManager.getInstance().isRunning()) {
                 DiscordManager.getInstance().sendLeaveEmbed(player.getName().getString(), player.getUUID().toString());
                 // Schedule status update after delay to ensure accurate player count
@@ -41,6 +44,9 @@ public class DiscordEventHandler {
             }
         });
 
+        // Discord -> Minecraft messages are delivered on the server thread, a bounded amount per tick
+        TickEvent.SERVER_POST.register(server -> DiscordManager.getInstance().onServerTick(server));
+
         EntityEvent.LIVING_DEATH.register((entity, source) -> {
             if (entity instanceof ServerPlayer) {
                 ServerPlayer player = (ServerPlayer) entity;
@@ -69,7 +75,72 @@ public class DiscordEventHandler {
                                     .withClickEvent(new ClickEvent(ClickEvent.Action.OPEN_URL, "https://discord.gg/YOUR_INVITE"))
                                     .withBold(true))), false);
                     return 1;
-                }));
+                })
+                // /discord webhooks - webhook pool health (ops only)
+                .then(Commands.literal("webhooks")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(context -> {
+                        java.util.List<WebhookEndpoint> endpoints = DiscordManager.getInstance().getWebhookEndpoints();
+                        if (endpoints.isEmpty()) {
+                            context.getSource().sendFailure(Component.literal("No webhooks configured."));
+                            return 0;
+                        }
+                        for (WebhookEndpoint endpoint : endpoints) {
+                            WebhookEndpoint.State state = endpoint.getState();
+                            ChatFormatting color = state == WebhookEndpoint.State.HEALTHY ? ChatFormatting.GREEN
+                                    : state == WebhookEndpoint.State.RATE_LIMITED ? ChatFormatting.YELLOW
+                                    : ChatFormatting.RED;
+                            MutableComponent line = Component.literal("Webhook #" + endpoint.getIndex() + " ")
+                                    .append(Component.literal(state.name()).withStyle(color))
+                                    .append(Component.literal(" queued=" + endpoint.getQueuedCount()
+                                            + " sent=" + endpoint.getSentCount()
+                                            + " failed=" + endpoint.getFailedCount()
+                                            + " rateLimited=" + endpoint.getRateLimitedCount()
+                                            + " dropped=" + endpoint.getDroppedCount()
+                                            + (endpoint.getLastErrorCode() != 0 ? " lastError=" + endpoint.getLastErrorCode() : ""))
+                                            .withStyle(ChatFormatting.GRAY));
+                            context.getSource().sendSuccess(() -> line, false);
+                        }
+                        OutboundScheduler scheduler = DiscordManager.getInstance().getOutboundScheduler();
+                        for (OutboundScheduler.Lane lane : OutboundScheduler.Lane.values()) {
+                            MutableComponent line = Component.literal("Lane " + lane + " ")
+                                    .append(Component.literal("queued=" + scheduler.getQueuedCount(lane)
+                                            + " dropped=" + scheduler.getDroppedCount(lane))
+                                            .withStyle(ChatFormatting.GRAY));
+                            context.getSource().sendSuccess(() -> line, false);
+                        }
+                        return endpoints.size();
+                    }))
+                // /discord gateway - connection state, intents and gateway events received (ops only)
+                .then(Commands.literal("gateway")
+                    .requires(source -> source.hasPermission(2))
+                    .executes(context -> {
+                        DiscordManager manager = DiscordManager.getInstance();
+                        BotClient bot = manager.getBotClient();
+                        long startupMillis = manager.getStartupMillis();
+                        context.getSource().sendSuccess(() ->
+                            Component.literal("Integration: ")
+                                .append(Component.literal(manager.getInitState().name()
+                                        + (startupMillis >= 0 ? " (ready after " + startupMillis + " ms)" : ""))
+                                        .withStyle(ChatFormatting.GRAY)), false);
+                        context.getSource().sendSuccess(() ->
+                            Component.literal("State: ")
+                                .append(Component.literal(bot.getState().name()).withStyle(
+                                    bot.isConnected() ? ChatFormatting.GREEN : ChatFormatting.YELLOW)), false);
+                        context.getSource().sendSuccess(() ->
+                            Component.literal("Intents: ")
+                                .append(Component.literal(bot.getIntents().toString()).withStyle(ChatFormatting.GRAY)), false);
+                        java.util.Map<String, Long> counts = bot.getEventCounter().snapshot();
+                        if (counts.isEmpty()) {
+                            context.getSource().sendSuccess(() -> Component.literal("No gateway events received yet."), false);
+                        }
+                        counts.forEach((type, count) -> {
+                            MutableComponent line = Component.literal(type + " ")
+                                    .append(Component.literal(String.valueOf(count)).withStyle(ChatFormatting.GRAY));
+                            context.getSource().sendSuccess(() -> line, false);
+                        });
+                        return counts.size();
+                    })));
 
         // /link command - link Discord account
         dispatcher.register(Commands.literal("link")
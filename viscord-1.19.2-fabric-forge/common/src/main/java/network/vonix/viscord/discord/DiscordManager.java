@@ -1,8 +1,6 @@
 package network.vonix.viscord.discord;
 
-import com.google.gson.JsonObject;
 import net.minecraft.ChatFormatting;
-import net.minecraft.network.chat.ClickEvent;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.HoverEvent;
 import net.minecraft.network.chat.MutableComponent;
@@ -21,11 +19,8 @@ import java.nio.file.Path;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.javacord.api.event.message.MessageCreateEvent;
 
 /**
@@ -37,17 +32,31 @@ public class DiscordManager {
     private static DiscordManager instance;
     private final BotClient botClient;
     private final WebhookClient webhookClient;
+    private final OutboundScheduler outboundScheduler;
+    private final OutboxRelay outboxRelay;
+    private final ChatCoalescer chatCoalescer;
+    private final JoinLeaveDigest joinLeaveDigest;
+    private final ChatDeduplicator chatDeduplicator = new ChatDeduplicator();
+    private final EventRelay eventRelay = new EventRelay(this::handleRelayEvent);
+    private final PresenceUpdater presenceUpdater;
+    private final AudienceIndex audienceIndex = new AudienceIndex(this::isFiltered);
+    private final InboundDelivery inboundDelivery = new InboundDelivery(audienceIndex);
     private final MessageConverter messageConverter;
 
     // Embed detection and processing
-    private final EventEmbedDetector eventDetector = new EventEmbedDetector();
-    private final AdvancementEmbedDetector advancementDetector = new AdvancementEmbedDetector();
+    private final EmbedClassifier embedClassifier = new EmbedClassifier();
+    private final MentionResolver mentionResolver = new MentionResolver();
     private final EventDataExtractor eventExtractor = new EventDataExtractor();
     private final AdvancementDataExtractor advancementExtractor = new AdvancementDataExtractor();
     private final VanillaComponentBuilder componentBuilder = new VanillaComponentBuilder();
 
-    // Pattern for Discord markdown links
-    private static final Pattern DISCORD_MARKDOWN_LINK = Pattern.compile("\\[([^\\]]+)\\]\\((https?://[^)]+)\\)");
+    // How long shutdown waits for the relay thread to drain. Handling an event only formats it and
+    // hands it to a queue, so a full ring drains well within this; anything left is still relayed,
+    // just after the shutdown message, while the server thread moves on
+    private static final long RELAY_DRAIN_TIMEOUT_MS = 250;
+
+    // Shared "§7: " between a cross-server sender's name and message
+    private static final Component NAME_SEPARATOR = LegacyFormat.parse("§7: ");
 
     // Server reference
     private MinecraftServer server;
@@ -56,12 +65,50 @@ public class DiscordManager {
     private LinkedAccountsManager linkedAccountsManager;
     private PlayerPreferences playerPreferences;
 
-    private boolean running = false;
+    private volatile boolean running = false;
+
+    /**
+     * Startup progress. INITIALIZING until clients are set up, CONNECTING until the
+     * bot first logs in, then READY while connected and DEGRADED while not
+     * (webhooks keep working and bot sends are buffered).
+     */
+    public enum InitState {
+        STOPPED,
+        INITIALIZING,
+        CONNECTING,
+        READY,
+        DEGRADED
+    }
+
+    private final Object lifecycleLock = new Object();
+    private volatile InitState initState = InitState.STOPPED;
+    private volatile long initStartNanos;
+    private volatile long startupMillis = -1;
     private String eventChannelId;
 
     private DiscordManager() {
         this.botClient = new BotClient();
+        this.botClient.addStateListener(this::onConnectionStateChanged);
+        this.presenceUpdater = new PresenceUpdater(this::renderBotStatus, botClient::updateStatus);
         this.webhookClient = new WebhookClient();
+        this.outboundScheduler = new OutboundScheduler();
+        this.outboxRelay = new OutboxRelay(webhookClient, botClient, outboundScheduler);
+        this.chatCoalescer = new ChatCoalescer(outboxRelay::sendWebhookMessage);
+        this.joinLeaveDigest = new JoinLeaveDigest(new JoinLeaveDigest.Sink() {
+            @Override
+            public void sendSingle(JoinLeaveDigest.Kind kind, String username, String uuid) {
+                if (kind == JoinLeaveDigest.Kind.JOIN) {
+                    postJoinEmbed(username, uuid);
+                } else {
+                    postLeaveEmbed(username, uuid);
+                }
+            }
+
+            @Override
+            public void sendDigest(JoinLeaveDigest.Kind kind, List<String> usernames) {
+                postJoinLeaveDigest(kind, usernames);
+            }
+        });
         this.messageConverter = new MessageConverter();
     }
 
@@ -72,31 +119,96 @@ public class DiscordManager {
         return instance;
     }
 
+    /**
+     * Whether the integration is up. Sends made while the bot is still connecting
+     * or reconnecting are buffered, so this does not wait for the gateway.
+     */
     public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Whether the bot currently has a live gateway connection.
+     */
+    public boolean isConnected() {
         return running && botClient.isConnected();
     }
 
-    public void initialize(MinecraftServer server) {
+    /**
+     * Starts the integration without blocking the caller. Events sent from now on
+     * are buffered in the relay until the clients are ready; the returned future
+     * completes once setup is done (the bot may still be connecting).
+     */
+    public CompletableFuture<Void> initializeAsync(MinecraftServer server) {
         if (!ViscordConfig.CONFIG.enabled.get()) {
             Viscord.LOGGER.info("[Discord] Disabled in config.");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        // Prevent double initialization
-        if (this.running) {
-            Viscord.LOGGER.warn("[Discord] Already initialized, skipping duplicate init.");
-            return;
+        synchronized (lifecycleLock) {
+            // Prevent double initialization
+            if (this.running) {
+                Viscord.LOGGER.warn("[Discord] Already initialized, skipping duplicate init.");
+                return CompletableFuture.completedFuture(null);
+            }
+
+            this.server = server;
+            this.running = true;
+            this.initStartNanos = System.nanoTime();
+            this.startupMillis = -1;
+            setInitState(InitState.INITIALIZING);
+            this.eventRelay.open(ViscordConfig.CONFIG.relayQueueSize.get());
         }
 
-        this.server = server;
-        this.running = true;
+        return CompletableFuture.runAsync(this::initialize, Viscord.getAsyncExecutor())
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        Viscord.LOGGER.error("[Discord] Initialization failed", error);
+                        setInitState(InitState.DEGRADED);
+                    }
+                });
+    }
+
+    private void initialize() {
+        synchronized (lifecycleLock) {
+            // Shut down before we got here
+            if (initState == InitState.STOPPED) {
+                return;
+            }
+            initializeClients();
+        }
+    }
 
+    private void initializeClients() {
         // 1. Initialize Clients
         String webhookUrl = ViscordConfig.CONFIG.webhookUrl.get();
         String botToken = ViscordConfig.CONFIG.botToken.get();
         String channelId = ViscordConfig.CONFIG.channelId.get();
 
-        this.webhookClient.updateUrl(webhookUrl);
+        List<String> webhookUrls = new ArrayList<>();
+        webhookUrls.add(webhookUrl);
+        webhookUrls.addAll(ViscordConfig.CONFIG.webhookUrls.get());
+        this.webhookClient.updateUrls(webhookUrls);
+        this.webhookClient.configureDispatcher(
+                ViscordConfig.CONFIG.httpMaxRequests.get(),
+                ViscordConfig.CONFIG.httpMaxRequestsPerHost.get());
+        this.webhookClient.configureQueue(
+                ViscordConfig.CONFIG.messageQueueSize.get(),
+                ViscordConfig.CONFIG.rateLimitDelay.get(),
+                OutboundQueue.OverflowPolicy.fromConfig(ViscordConfig.CONFIG.queueOverflowPolicy.get()),
+                ViscordConfig.CONFIG.queueBlockTimeout.get());
+        this.chatCoalescer.setWindow(ViscordConfig.CONFIG.chatCoalesceWindow.get());
+        this.inboundDelivery.configure(
+                ViscordConfig.CONFIG.inboundQueueSize.get(),
+                ViscordConfig.CONFIG.inboundTickBudget.get());
+        this.joinLeaveDigest.configure(
+                ViscordConfig.CONFIG.joinBurstThreshold.get(),
+                ViscordConfig.CONFIG.joinBurstWindow.get());
+        this.outboundScheduler.configure(
+                ViscordConfig.CONFIG.outboundMaxInFlight.get(),
+                ViscordConfig.CONFIG.messageQueueSize.get(),
+                ViscordConfig.CONFIG.bulkLaneCapacity.get(),
+                ViscordConfig.CONFIG.bulkMaxAge.get());
 
         // Determine event channel
         String pEventChannelId = ViscordConfig.CONFIG.eventChannelId.get();
@@ -112,28 +224,108 @@ public class DiscordManager {
         Path configDir = Platform.getConfigDirectory();
         try {
             this.playerPreferences = new PlayerPreferences(configDir);
+            this.audienceIndex.invalidate();
             if (ViscordConfig.CONFIG.enableAccountLinking.get()) {
                 this.linkedAccountsManager = new LinkedAccountsManager(configDir);
             }
         } catch (IOException e) {
             Viscord.LOGGER.error("[Discord] Failed to load data managers", e);
         }
+        if (ViscordConfig.CONFIG.outboxEnabled.get()) {
+            this.outboxRelay.open(
+                    configDir.resolve("viscord-outbox"),
+                    ViscordConfig.CONFIG.outboxSegmentSize.get() * 1024L,
+                    ViscordConfig.CONFIG.outboxMaxSegments.get(),
+                    ViscordConfig.CONFIG.outboxReplayBatch.get());
+        }
+
+        // Relay whatever was buffered while setting up
+        this.eventRelay.start();
 
         // 3. Connect Bot
+        setInitState(InitState.CONNECTING);
         this.botClient.setMessageHandler(this::onDiscordMessage);
+        this.botClient.setLeanCache(ViscordConfig.CONFIG.botLeanCache.get());
+        this.botClient.setIntents(IntentPlanner.plan(
+                ViscordConfig.CONFIG.enableAccountLinking.get(),
+                ViscordConfig.CONFIG.botIntents.get()));
         this.botClient.connect(botToken, channelId).thenRun(() -> {
+            // Also covers running without a bot token, where no state change arrives
+            markReady();
             // 4. Send Startup Message (only after connection)
             sendStartupEmbed(ViscordConfig.CONFIG.serverName.get());
-            // 5. Set initial bot status
-            updateBotStatus();
         });
 
         Viscord.LOGGER.info("[Discord] Integration initialized.");
     }
 
-    public void shutdown() {
-        if (!running)
+    private void onConnectionStateChanged(BotClient.ConnectionState state) {
+        Viscord.LOGGER.info("[Discord] Bot connection: {}", state);
+        switch (state) {
+            case CONNECTED:
+                markReady();
+                // Deliver anything the outbox kept while the bot was offline first
+                outboxRelay.resume();
+                // 5. Set bot status (again after a reconnect)
+                presenceUpdater.reset();
+                presenceUpdater.request(0);
+                break;
+            case DISCONNECTED:
+            case RECONNECTING:
+                if (initState == InitState.CONNECTING || initState == InitState.READY) {
+                    setInitState(InitState.DEGRADED);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void markReady() {
+        if (initState == InitState.STOPPED) {
+            return;
+        }
+        if (startupMillis < 0) {
+            startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - initStartNanos);
+            Viscord.LOGGER.info("[Discord] Ready {} ms after server start", startupMillis);
+        }
+        setInitState(InitState.READY);
+    }
+
+    private void setInitState(InitState state) {
+        // Only a new start leaves STOPPED
+        if (initState == InitState.STOPPED && state != InitState.INITIALIZING) {
             return;
+        }
+        if (initState != state) {
+            initState = state;
+            Viscord.LOGGER.info("[Discord] Integration state: {}", state);
+        }
+    }
+
+    public InitState getInitState() {
+        return initState;
+    }
+
+    /**
+     * Milliseconds from start until first READY, or -1 if not ready yet.
+     */
+    public long getStartupMillis() {
+        return startupMillis;
+    }
+
+    public void shutdown() {
+        synchronized (lifecycleLock) {
+            if (!running || initState == InitState.STOPPED)
+                return;
+            // Waits for a setup that is still running, so there is something to tear down
+            setInitState(InitState.STOPPED);
+        }
+
+        // Let queued chat and events go out before the shutdown message
+        eventRelay.stop(RELAY_DRAIN_TIMEOUT_MS);
+        chatCoalescer.flush();
+        joinLeaveDigest.flush();
 
         Viscord.LOGGER.info("[Discord] Sending shutdown message...");
         try {
@@ -163,6 +355,8 @@ public class DiscordManager {
     }
 
     private void continueShutdown() {
+        presenceUpdater.cancel();
+
         // Disconnect bot client with error handling
         if (botClient != null) {
             try {
@@ -175,6 +369,11 @@ public class DiscordManager {
         // Shutdown webhook client with error handling
         if (webhookClient != null) {
             try {
+                // Close the outbox first so messages discarded below stay journaled for the next start
+                outboxRelay.close();
+                outboundScheduler.clear();
+                inboundDelivery.clear();
+                mentionResolver.clear();
                 webhookClient.shutdown();
             } catch (Exception e) {
                 Viscord.LOGGER.error("[Discord] Error shutting down webhook client: {}", e.getMessage());
@@ -242,25 +441,25 @@ public class DiscordManager {
 
         boolean isWebhook = message.getAuthor().isWebhook();
         String authorName = message.getAuthor().getDisplayName();
-        String content = message.getContent();
+        String content = mentionResolver.resolve(message, message.getContent());
 
         // Check for embeds that need special processing
         if (!message.getEmbeds().isEmpty()) {
             for (Embed embed : message.getEmbeds()) {
-                // Check for advancement embeds first
-                if (advancementDetector.isAdvancementEmbed(embed)) {
-                    processAdvancementEmbed(embed, event);
-                    return;
-                }
-                // Check for event embeds (join/leave/death)
-                if (eventDetector.isEventEmbed(embed)) {
-                    processEventEmbed(embed, event);
-                    return;
-                }
-                // Check for Player List system embeds
-                if (isPlayerListEmbed(embed)) {
-                    processPlayerListEmbed(embed, event);
-                    return;
+                // Advancement, then event (join/leave/death), then Player List system embeds
+                EmbedClassifier.Classification classification = embedClassifier.classify(embed);
+                switch (classification.getKind()) {
+                    case ADVANCEMENT:
+                        processAdvancementEmbed(embed, classification, event);
+                        return;
+                    case EVENT:
+                        processEventEmbed(embed, classification, event);
+                        return;
+                    case PLAYER_LIST:
+                        processPlayerListEmbed(embed, event);
+                        return;
+                    default:
+                        break;
                 }
             }
         }
@@ -316,7 +515,7 @@ public class DiscordManager {
                     cleanedContent = content.substring(authorName.length() + 1);
                 }
 
-                String formattedMessage;
+                MutableComponent line;
                 if (displayName.startsWith("[") && displayName.contains("]")) {
                     int endBracket = displayName.indexOf("]");
                     String serverPrefix = displayName.substring(0, endBracket + 1);
@@ -329,34 +528,31 @@ public class DiscordManager {
 
                     if (isEvtChannel) {
                         // Event channel: [Prefix] message (name is in message)
-                        formattedMessage = "§a" + serverPrefix + " §f" + cleanedContent;
+                        line = crossServerLine(LegacyFormat.serverPrefix(serverPrefix), null, cleanedContent);
                     } else {
                         // Chat: [Prefix] Name: message
                         if (remainingName.isEmpty() || remainingName.toLowerCase().contains("server")) {
-                            formattedMessage = "§a" + serverPrefix + " §f" + cleanedContent;
+                            line = crossServerLine(LegacyFormat.serverPrefix(serverPrefix), null, cleanedContent);
                         } else {
-                            formattedMessage = "§a" + serverPrefix + " §f" + remainingName + "§7: §f" + cleanedContent;
+                            line = crossServerLine(LegacyFormat.serverPrefix(serverPrefix), remainingName, cleanedContent);
                         }
                     }
                 } else {
                     // No bracket prefix found - treat as cross-server
-                    formattedMessage = "§a[Cross-Server] §f" + authorName + "§7: §f" + cleanedContent;
+                    line = crossServerLine(LegacyFormat.serverPrefix("[Cross-Server]"), authorName, cleanedContent);
                 }
 
-                finalComponent.append(toMinecraftComponentWithLinks(formattedMessage));
+                finalComponent.append(line);
             } else {
-                // Regular Discord user: make [Discord] clickable
-                String rawFormat = ViscordConfig.CONFIG.discordToMinecraftFormat.get()
-                        .replace("{username}", authorName)
-                        .replace("{message}", content);
+                // Regular Discord user: configured format with {username} and {message}
+                LegacyFormat.Template format = LegacyFormat.template(
+                        ViscordConfig.CONFIG.discordToMinecraftFormat.get(), "username", "message");
 
-                finalComponent.append(toMinecraftComponentWithLinks(rawFormat));
+                finalComponent.append(format.render(Component.literal(authorName), DiscordMarkdown.render(content)));
             }
 
             // Broadcast to server with player preference filtering
-            server.execute(() -> {
-                broadcastSystemMessageRespectingFilters(finalComponent);
-            });
+            inboundDelivery.offer(InboundDelivery.Audience.CHAT, finalComponent);
         }
     }
 
@@ -364,17 +560,17 @@ public class DiscordManager {
      * Processes an event embed (join/leave/death) and broadcasts as vanilla-style
      * message.
      */
-    private void processEventEmbed(Embed embed, org.javacord.api.event.message.MessageCreateEvent event) {
+    private void processEventEmbed(Embed embed, EmbedClassifier.Classification classification,
+            org.javacord.api.event.message.MessageCreateEvent event) {
         try {
-            EventData data = eventExtractor.extractFromEmbed(embed);
+            EventData data = eventExtractor.extractFromEmbed(embed, classification.getEventType(),
+                    classification.getPlayerName());
             String serverPrefix = extractServerPrefixFromAuthor(event.getMessageAuthor().getDisplayName());
 
             MutableComponent eventComponent = componentBuilder.buildEventMessage(data, serverPrefix);
 
             if (server != null) {
-                server.execute(() -> {
-                    broadcastEventMessageRespectingFilters(eventComponent);
-                });
+                inboundDelivery.offer(InboundDelivery.Audience.EVENTS, eventComponent);
                 if (ViscordConfig.CONFIG.debugLogging.get()) {
                     Viscord.LOGGER.debug("[Discord] Processed event embed: {} {}",
                             data.getPlayerName(), data.getActionString());
@@ -393,17 +589,17 @@ public class DiscordManager {
     /**
      * Processes an advancement embed and broadcasts as vanilla-style message.
      */
-    private void processAdvancementEmbed(Embed embed, org.javacord.api.event.message.MessageCreateEvent event) {
+    private void processAdvancementEmbed(Embed embed, EmbedClassifier.Classification classification,
+            org.javacord.api.event.message.MessageCreateEvent event) {
         try {
-            AdvancementData data = advancementExtractor.extractFromEmbed(embed);
+            AdvancementData data = advancementExtractor.extractFromEmbed(embed, classification.getAdvancementType(),
+                    classification.getPlayerName());
             String serverPrefix = extractServerPrefixFromAuthor(event.getMessageAuthor().getDisplayName());
 
             MutableComponent advComponent = componentBuilder.buildAdvancementMessage(data, serverPrefix);
 
             if (server != null) {
-                server.execute(() -> {
-                    broadcastEventMessageRespectingFilters(advComponent);
-                });
+                inboundDelivery.offer(InboundDelivery.Audience.EVENTS, advComponent);
                 if (ViscordConfig.CONFIG.debugLogging.get()) {
                     Viscord.LOGGER.debug("[Discord] Processed advancement embed: {} - {}",
                             data.getPlayerName(), data.getAdvancementTitle());
@@ -427,9 +623,7 @@ public class DiscordManager {
         try {
             MutableComponent convertedComponent = convertEmbedToMinecraftComponent(embed, event);
             if (convertedComponent != null && server != null) {
-                server.execute(() -> {
-                    broadcastEventMessageRespectingFilters(convertedComponent);
-                });
+                inboundDelivery.offer(InboundDelivery.Audience.EVENTS, convertedComponent);
                 if (ViscordConfig.CONFIG.debugLogging.get()) {
                     Viscord.LOGGER.debug("[Discord] Used embed conversion fallback");
                 }
@@ -441,11 +635,10 @@ public class DiscordManager {
 
         // Strategy 2: Ultimate fallback - use MessageConverter
         try {
-            Component fallback = MessageConverter.toMinecraft(event.getMessage());
+            Component fallback = MessageConverter.toMinecraft(event.getMessage(),
+                    mentionResolver.resolve(event.getMessage(), event.getMessage().getContent()));
             if (server != null) {
-                server.execute(() -> {
-                    broadcastEventMessageRespectingFilters(fallback);
-                });
+                inboundDelivery.offer(InboundDelivery.Audience.EVENTS, fallback);
             }
         } catch (Exception e) {
             Viscord.LOGGER.error("[Discord] All fallback strategies failed for embed", e);
@@ -505,17 +698,15 @@ public class DiscordManager {
 
             // Get server prefix from author
             String authorName = event.getMessageAuthor().getDisplayName();
-            String formattedMessage;
+            Component prefix;
             if (authorName != null && authorName.startsWith("[") && authorName.contains("]")) {
                 int endBracket = authorName.indexOf("]");
-                String prefix = authorName.substring(0, endBracket + 1);
-                formattedMessage = "§a" + prefix + " §f" + text;
+                prefix = LegacyFormat.serverPrefix(authorName.substring(0, endBracket + 1));
             } else {
-                String serverPrefix = ViscordConfig.CONFIG.serverPrefix.get();
-                formattedMessage = "§a[" + serverPrefix + "] §f" + text;
+                prefix = LegacyFormat.serverPrefix("[" + ViscordConfig.CONFIG.serverPrefix.get() + "]");
             }
 
-            return (MutableComponent) toMinecraftComponentWithLinks(formattedMessage);
+            return crossServerLine(prefix, null, text);
 
         } catch (Exception e) {
             Viscord.LOGGER.error("[Discord] Error converting embed to component: {}", e.getMessage());
@@ -542,96 +733,50 @@ public class DiscordManager {
     }
 
     /**
-     * Converts text to Minecraft component, parsing Discord markdown links.
+     * Builds "[Prefix] Name: message" (or "[Prefix] message" without a name)
+     * around a shared prefix component, rendering the message's markdown.
      */
-    private Component toMinecraftComponentWithLinks(String text) {
-        if (text == null || text.isEmpty()) {
-            return Component.empty();
+    private static MutableComponent crossServerLine(Component prefix, String name, String message) {
+        MutableComponent line = Component.empty().append(prefix);
+        if (name != null) {
+            line.append(Component.literal(name).withStyle(ChatFormatting.WHITE)).append(NAME_SEPARATOR);
         }
-
-        Matcher matcher = DISCORD_MARKDOWN_LINK.matcher(text);
-        MutableComponent result = Component.empty();
-        int lastEnd = 0;
-        boolean hasLink = false;
-
-        while (matcher.find()) {
-            int start = matcher.start();
-            int end = matcher.end();
-
-            if (start > lastEnd) {
-                String before = text.substring(lastEnd, start);
-                if (!before.isEmpty()) {
-                    result.append(Component.literal(before));
-                }
-            }
-
-            String label = matcher.group(1);
-            String url = matcher.group(2);
-
-            Component linkComponent = Component.literal(label)
-                    .withStyle(style -> style
-                            .withClickEvent(new ClickEvent(ClickEvent.Action.OPEN_URL, url))
-                            .withUnderlined(true)
-                            .withColor(ChatFormatting.AQUA));
-
-            result.append(linkComponent);
-            lastEnd = end;
-            hasLink = true;
-        }
-
-        if (lastEnd < text.length()) {
-            String tail = text.substring(lastEnd);
-            if (!tail.isEmpty()) {
-                result.append(Component.literal(tail));
-            }
-        }
-
-        if (!hasLink) {
-            return Component.literal(text);
-        }
-
-        return result;
+        return line.append(DiscordMarkdown.render(message).withStyle(ChatFormatting.WHITE));
     }
 
     /**
-     * Broadcasts a system message to all players, respecting player message filtering preferences.
-     * Players who have disabled cross-server messages will not receive this message.
+     * Delivers queued Discord messages to players. Called by the server thread once per tick.
      */
-    private void broadcastSystemMessageRespectingFilters(Component message) {
-        if (server == null) return;
-
-        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-            if (!hasServerMessagesFiltered(player.getUUID())) {
-                player.sendSystemMessage(message, false);
-            }
+    public void onServerTick(MinecraftServer server) {
+        if (running) {
+            inboundDelivery.drain(server);
         }
     }
 
     /**
-     * Broadcasts an event message to all players, respecting player event filtering preferences.
-     * Players who have disabled event messages will not receive this message.
+     * Keeps the audience index in step with the player list. Server thread only.
      */
-    private void broadcastEventMessageRespectingFilters(Component message) {
-        if (server == null) return;
+    public void onPlayerConnected(ServerPlayer player) {
+        audienceIndex.add(player);
+    }
 
-        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-            if (!hasEventsFiltered(player.getUUID())) {
-                player.sendSystemMessage(message, false);
-            }
-        }
+    public void onPlayerDisconnected(ServerPlayer player) {
+        audienceIndex.remove(player);
     }
 
     /**
-     * Broadcasts a server system message to all players, respecting player server system message filtering preferences.
-     * Players who have disabled server system messages (startup, shutdown, player list) will not receive this message.
+     * Whether a player has opted out of messages for the given audience.
      */
-    private void broadcastServerSystemMessageRespectingFilters(Component message) {
-        if (server == null) return;
-
-        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-            if (!hasServerSystemMessagesFiltered(player.getUUID())) {
-                player.sendSystemMessage(message, false);
-            }
+    private boolean isFiltered(InboundDelivery.Audience audience, UUID playerUuid) {
+        switch (audience) {
+            case CHAT:
+                return hasServerMessagesFiltered(playerUuid);
+            case EVENTS:
+                return hasEventsFiltered(playerUuid);
+            case SERVER_SYSTEM:
+                return hasServerSystemMessagesFiltered(playerUuid);
+            default:
+                return false;
         }
     }
 
@@ -640,9 +785,55 @@ public class DiscordManager {
     // =================================================================================
 
     public void sendMinecraftMessage(String username, String message, String uuid) {
-        if (!running || webhookClient == null)
+        if (!running)
             return;
 
+        eventRelay.publish(RelayEvent.chat(username, message, uuid, null));
+    }
+
+    /**
+     * Handles an event published from the server thread. Runs on the relay consumer,
+     * which does all config lookups, formatting and serialization.
+     */
+    private void handleRelayEvent(RelayEvent event) {
+        switch (event.type) {
+            case CHAT:
+                relayChat(event);
+                break;
+            case JOIN:
+                relayJoin(event.username, event.uuid);
+                break;
+            case LEAVE:
+                relayLeave(event.username, event.uuid);
+                break;
+            case DEATH:
+                relayDeath(event.text);
+                break;
+            case ADVANCEMENT:
+                relayAdvancement(event.username, event.text, event.detail, event.uuid);
+                break;
+            case SERVER_STATUS:
+                relayServerStatus(event.text, event.detail, event.color);
+                break;
+        }
+    }
+
+    private void relayChat(RelayEvent event) {
+        if (webhookClient == null)
+            return;
+
+        String username = event.username;
+        String uuid = event.uuid;
+        String message = event.text;
+
+        if (uuid != null && event.messageId != null
+                && !chatDeduplicator.firstSeen(ChatDeduplicator.key(uuid, event.messageId))) {
+            if (ViscordConfig.CONFIG.debugLogging.get()) {
+                Viscord.LOGGER.debug("[Discord] Ignoring duplicate chat message from {}", username);
+            }
+            return;
+        }
+
         String prefix = ViscordConfig.CONFIG.serverPrefix.get();
         String formattedUsername = ViscordConfig.CONFIG.webhookUsernameFormat.get()
                 .replace("{prefix}", prefix)
@@ -650,7 +841,8 @@ public class DiscordManager {
 
         String avatarUrl = getAvatarUrl(username, uuid);
 
-        webhookClient.sendMessage(formattedUsername, avatarUrl, message);
+        // Consecutive lines from the same sender may be merged into one post
+        chatCoalescer.submit(formattedUsername, avatarUrl, message);
     }
 
     public void sendSystemMessage(String message) {
@@ -669,7 +861,7 @@ public class DiscordManager {
     // Embed Senders
     // =================================================================================
 
-    private CompletableFuture<org.javacord.api.entity.message.Message> sendEventEmbedInternal(Consumer<JsonObject> embedBuilder) {
+    private CompletableFuture<Void> sendEventEmbedInternal(OutboundScheduler.Lane lane, OutgoingEmbed embed) {
         if (!running) {
             Viscord.LOGGER.debug("[Discord] Cannot send event embed - Discord not running");
             return CompletableFuture.completedFuture(null);
@@ -680,14 +872,11 @@ public class DiscordManager {
             return CompletableFuture.completedFuture(null);
         }
 
-        JsonObject embed = new JsonObject();
-        embedBuilder.accept(embed);
-
         if (ViscordConfig.CONFIG.debugLogging.get()) {
             Viscord.LOGGER.debug("[Discord] Sending event embed to channel: {}", eventChannelId);
         }
 
-        return botClient.sendEmbed(eventChannelId, embed).whenComplete((msg, error) -> {
+        return outboxRelay.sendEmbed(eventChannelId, lane, embed).whenComplete((msg, error) -> {
             if (error != null) {
                 Viscord.LOGGER.error("[Discord] Failed to send event embed to channel {}", eventChannelId, error);
             }
@@ -695,7 +884,7 @@ public class DiscordManager {
     }
 
     public void sendStartupEmbed(String serverName) {
-        sendEventEmbedInternal(EmbedFactory.createServerStatusEmbed(
+        sendEventEmbedInternal(OutboundScheduler.Lane.SYSTEM, EmbedFactory.createServerStatusEmbed(
                 "Server Online",
                 "Server is now online",
                 0x43B581,
@@ -703,8 +892,8 @@ public class DiscordManager {
                 "Viscord"));
     }
 
-    public CompletableFuture<org.javacord.api.entity.message.Message> sendShutdownEmbed(String serverName) {
-        return sendEventEmbedInternal(EmbedFactory.createServerStatusEmbed(
+    public CompletableFuture<Void> sendShutdownEmbed(String serverName) {
+        return sendEventEmbedInternal(OutboundScheduler.Lane.SYSTEM, EmbedFactory.createServerStatusEmbed(
                 "Server Offline",
                 "Server is shutting down",
                 0xF04747,
@@ -713,22 +902,33 @@ public class DiscordManager {
     }
 
     public void sendJoinEmbed(String username, String uuid) {
-        if (!ViscordConfig.CONFIG.sendJoin.get())
-            return;
-
-        if (!isRunning()) {
+        // Checks running rather than isRunning() so the outbox keeps events while the bot is offline
+        if (!running) {
             Viscord.LOGGER.debug("[Discord] Not sending join embed - Discord not running");
             return;
         }
 
-        sendEventEmbedInternal(EmbedFactory.createPlayerEventEmbed(
+        eventRelay.publish(RelayEvent.join(username, uuid));
+    }
+
+    private void relayJoin(String username, String uuid) {
+        if (!ViscordConfig.CONFIG.sendJoin.get())
+            return;
+
+        // Folded into a digest during reconnect bursts
+        joinLeaveDigest.submit(JoinLeaveDigest.Kind.JOIN, username, uuid);
+    }
+
+    private void postJoinEmbed(String username, String uuid) {
+        sendEventEmbedInternal(OutboundScheduler.Lane.EVENTS, EmbedFactory.createPlayerEventEmbed(
                 "Player Joined",
                 username + " joined the game",
                 0x5865F2,
                 username,
                 ViscordConfig.CONFIG.serverName.get(),
                 "Join",
-                getAvatarUrl(username, uuid)
+                getAvatarUrl(username, uuid),
+                EmbedEnvelope.Kind.JOIN
         )).whenComplete((msg, error) -> {
             if (error != null) {
                 Viscord.LOGGER.error("[Discord] Failed to send join embed for {}", username, error);
@@ -739,22 +939,31 @@ public class DiscordManager {
     }
 
     public void sendLeaveEmbed(String username, String uuid) {
-        if (!ViscordConfig.CONFIG.sendLeave.get())
-            return;
-
-        if (!isRunning()) {
+        if (!running) {
             Viscord.LOGGER.debug("[Discord] Not sending leave embed - Discord not running");
             return;
         }
 
-        sendEventEmbedInternal(EmbedFactory.createPlayerEventEmbed(
+        eventRelay.publish(RelayEvent.leave(username, uuid));
+    }
+
+    private void relayLeave(String username, String uuid) {
+        if (!ViscordConfig.CONFIG.sendLeave.get())
+            return;
+
+        joinLeaveDigest.submit(JoinLeaveDigest.Kind.LEAVE, username, uuid);
+    }
+
+    private void postLeaveEmbed(String username, String uuid) {
+        sendEventEmbedInternal(OutboundScheduler.Lane.EVENTS, EmbedFactory.createPlayerEventEmbed(
                 "Player Left",
                 username + " left the game",
                 0x99AAB5,
                 username,
                 ViscordConfig.CONFIG.serverName.get(),
                 "Leave",
-                getAvatarUrl(username, uuid)
+                getAvatarUrl(username, uuid),
+                EmbedEnvelope.Kind.LEAVE
         )).whenComplete((msg, error) -> {
             if (error != null) {
                 Viscord.LOGGER.error("[Discord] Failed to send leave embed for {}", username, error);
@@ -764,6 +973,26 @@ public class DiscordManager {
         });
     }
 
+    private void postJoinLeaveDigest(JoinLeaveDigest.Kind kind, List<String> usernames) {
+        boolean join = kind == JoinLeaveDigest.Kind.JOIN;
+        sendEventEmbedInternal(OutboundScheduler.Lane.EVENTS, EmbedFactory.createPlayerDigestEmbed(
+                join ? "Players Joined" : "Players Left",
+                join ? "joined" : "left",
+                join ? 0x5865F2 : 0x99AAB5,
+                usernames,
+                ViscordConfig.CONFIG.serverName.get(),
+                "Activity"
+        )).whenComplete((msg, error) -> {
+            if (error != null) {
+                Viscord.LOGGER.error("[Discord] Failed to send {} digest for {} players",
+                        kind.name().toLowerCase(), usernames.size(), error);
+            } else if (ViscordConfig.CONFIG.debugLogging.get()) {
+                Viscord.LOGGER.debug("[Discord] Sent {} digest for {} players",
+                        kind.name().toLowerCase(), usernames.size());
+            }
+        });
+    }
+
     // Deprecated single-arg methods for compatibility if needed
     public void sendJoinEmbed(String username) {
         sendJoinEmbed(username, null);
@@ -778,7 +1007,14 @@ public class DiscordManager {
     }
 
     public void sendServerStatusMessage(String title, String description, int color) {
-        sendEventEmbedInternal(EmbedFactory.createServerStatusEmbed(
+        if (!running)
+            return;
+
+        eventRelay.publish(RelayEvent.serverStatus(title, description, color));
+    }
+
+    private void relayServerStatus(String title, String description, int color) {
+        sendEventEmbedInternal(OutboundScheduler.Lane.SYSTEM, EmbedFactory.createServerStatusEmbed(
                 title,
                 description,
                 color,
@@ -790,39 +1026,47 @@ public class DiscordManager {
         sendMinecraftMessage(username, message, uuid);
     }
 
-    public void sendDeathEmbed(String message) {
-        if (!ViscordConfig.CONFIG.sendDeath.get())
+    /**
+     * Relays a player chat message once. {@code messageId} identifies the message
+     * (signature, or timestamp and salt); repeats of the same message are ignored.
+     */
+    public void sendChatMessage(String username, String message, String uuid, String messageId) {
+        if (!running)
             return;
 
-        if (!isRunning()) {
+        eventRelay.publish(RelayEvent.chat(username, message, uuid, messageId));
+    }
+
+    public void sendDeathEmbed(String message) {
+        if (!running) {
             Viscord.LOGGER.debug("[Discord] Not sending death embed - Discord not running");
             return;
         }
 
-        JsonObject embed = new JsonObject();
-        embed.addProperty("title", "Player Died");
-        embed.addProperty("description", message);
-        embed.addProperty("color", 0xF04747);
-
-        botClient.sendEmbed(eventChannelId, embed).whenComplete((msg, error) -> {
-            if (error != null) {
-                Viscord.LOGGER.error("[Discord] Failed to send death embed", error);
-            } else if (ViscordConfig.CONFIG.debugLogging.get()) {
-                Viscord.LOGGER.debug("[Discord] Sent death embed");
-            }
-        });
+        eventRelay.publish(RelayEvent.death(message));
     }
 
-    public void sendAdvancementEmbed(String username, String title, String desc, String uuid) {
-        if (!ViscordConfig.CONFIG.sendAdvancement.get())
+    private void relayDeath(String message) {
+        if (!ViscordConfig.CONFIG.sendDeath.get())
             return;
 
-        if (!isRunning()) {
+        sendEventEmbedInternal(OutboundScheduler.Lane.EVENTS, EmbedFactory.createDeathEmbed(message, 0xF04747));
+    }
+
+    public void sendAdvancementEmbed(String username, String title, String desc, String uuid) {
+        if (!running) {
             Viscord.LOGGER.debug("[Discord] Not sending advancement embed - Discord not running");
             return;
         }
 
-        sendEventEmbedInternal(EmbedFactory.createAdvancementEmbed(
+        eventRelay.publish(RelayEvent.advancement(username, title, desc, uuid));
+    }
+
+    private void relayAdvancement(String username, String title, String desc, String uuid) {
+        if (!ViscordConfig.CONFIG.sendAdvancement.get())
+            return;
+
+        sendEventEmbedInternal(OutboundScheduler.Lane.BULK, EmbedFactory.createAdvancementEmbed(
                 "🏆",
                 0xFAA61A,
                 username,
@@ -839,37 +1083,31 @@ public class DiscordManager {
     }
 
     public void updateBotStatus() {
-        if (botClient == null || server == null || !ViscordConfig.CONFIG.setBotStatus.get()) {
-            return;
-        }
-
-        int online = server.getPlayerList().getPlayerCount();
-        int max = server.getPlayerList().getMaxPlayers();
-        String format = ViscordConfig.CONFIG.botStatusFormat.get();
-        String status = format.replace("{online}", String.valueOf(online))
-                              .replace("{max}", String.valueOf(max));
-
-        // Update status asynchronously to avoid blocking main thread
-        Viscord.executeAsync(() -> botClient.updateStatus(status));
+        scheduleStatusUpdate(0);
     }
 
     /**
      * Schedules a status update after a delay (used for player join/leave events).
-     * Non-blocking and thread-safe.
+     * Non-blocking and thread-safe; requests made while one is pending are merged into it.
      */
     public void scheduleStatusUpdate(int delayMs) {
-        if (botClient == null || server == null || !ViscordConfig.CONFIG.setBotStatus.get()) {
+        if (server == null || !ViscordConfig.CONFIG.setBotStatus.get()) {
             return;
         }
 
-        Viscord.executeAsync(() -> {
-            try {
-                Thread.sleep(delayMs);
-                updateBotStatus();
-            } catch (InterruptedException ignored) {
-                Thread.currentThread().interrupt();
-            }
-        });
+        presenceUpdater.request(delayMs);
+    }
+
+    private String renderBotStatus() {
+        if (server == null || !ViscordConfig.CONFIG.setBotStatus.get()) {
+            return null;
+        }
+
+        int online = server.getPlayerList().getPlayerCount();
+        int max = server.getPlayerList().getMaxPlayers();
+        String format = ViscordConfig.CONFIG.botStatusFormat.get();
+        return format.replace("{online}", String.valueOf(online))
+                     .replace("{max}", String.valueOf(max));
     }
 
     // =================================================================================
@@ -879,6 +1117,7 @@ public class DiscordManager {
     public void setServerSystemMessagesFiltered(UUID playerUuid, boolean filtered) {
         if (playerPreferences != null) {
             playerPreferences.setServerSystemMessagesFiltered(playerUuid, filtered);
+            audienceIndex.refresh(playerUuid);
         }
     }
 
@@ -889,6 +1128,7 @@ public class DiscordManager {
     public void setServerMessagesFiltered(UUID playerUuid, boolean filtered) {
         if (playerPreferences != null) {
             playerPreferences.setServerMessagesFiltered(playerUuid, filtered);
+            audienceIndex.refresh(playerUuid);
         }
     }
 
@@ -899,6 +1139,7 @@ public class DiscordManager {
     public void setEventsFiltered(UUID playerUuid, boolean filtered) {
         if (playerPreferences != null) {
             playerPreferences.setEventsFiltered(playerUuid, filtered);
+            audienceIndex.refresh(playerUuid);
         }
     }
 
@@ -937,7 +1178,7 @@ public class DiscordManager {
         org.javacord.api.entity.message.embed.EmbedBuilder embed = new org.javacord.api.entity.message.embed.EmbedBuilder()
                 .setTitle("📋 " + serverName)
                 .setColor(java.awt.Color.GREEN)
-                .setFooter("Viscord · Player List");
+                .setFooter(EmbedEnvelope.tag("Viscord · Player List", EmbedEnvelope.Kind.PLAYER_LIST, null));
 
         if (onlinePlayers == 0) {
             embed.setDescription("No players are currently online.");
@@ -1043,12 +1284,6 @@ public class DiscordManager {
         return ViscordConfig.CONFIG.offlineAvatarUrl.get().replace("{username}", username);
     }
 
-    private boolean isPlayerListEmbed(Embed embed) {
-        return embed.getFooter().map(f -> f.getText().map(text -> text.contains("Player List")).orElse(false))
-                .orElse(false) ||
-                embed.getTitle().map(t -> t.contains("List") || t.contains("Status")).orElse(false);
-    }
-
     private void processPlayerListEmbed(Embed embed, MessageCreateEvent event) {
         try {
             // Extract Server Name logic
@@ -1107,12 +1342,11 @@ public class DiscordManager {
                 }
             }
 
-            String formatted = "§a[📋 " + serverName + "] §f" + message;
+            MutableComponent formatted = crossServerLine(
+                    LegacyFormat.serverPrefix("[📋 " + serverName + "]"), null, message);
 
             if (server != null) {
-                server.execute(() -> {
-                    broadcastServerSystemMessageRespectingFilters(toMinecraftComponentWithLinks(formatted));
-                });
+                inboundDelivery.offer(InboundDelivery.Audience.SERVER_SYSTEM, formatted);
             }
 
         } catch (Exception e) {
@@ -1123,4 +1357,25 @@ public class DiscordManager {
     public MinecraftServer getServer() {
         return server;
     }
+
+    /**
+     * Webhooks in the outbound pool, for health reporting.
+     */
+    public List<WebhookEndpoint> getWebhookEndpoints() {
+        return webhookClient.getEndpoints();
+    }
+
+    /**
+     * Outbound lanes, for health reporting.
+     */
+    public OutboundScheduler getOutboundScheduler() {
+        return outboundScheduler;
+    }
+
+    /**
+     * Bot connection, for gateway reporting.
+     */
+    public BotClient getBotClient() {
+        return botClient;
+    }
 }
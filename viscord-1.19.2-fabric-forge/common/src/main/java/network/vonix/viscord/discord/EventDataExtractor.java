@@ -24,12 +24,27 @@ public class EventDataExtractor {
             throw new ExtractionException("Embed cannot be null");
         }
 
-        EventEmbedDetector.EventType eventType = detector.getEventType(embed);
-        if (eventType == EventEmbedDetector.EventType.UNKNOWN) {
+        return extractFromEmbed(embed, detector.getEventType(embed), null);
+    }
+
+    /**
+     * Extracts event data from an embed whose event type is already known,
+     * e.g. from {@link EmbedClassifier}. {@code playerName} is used as is when
+     * not null; otherwise it is looked for in the embed.
+     */
+    public EventData extractFromEmbed(Embed embed, EventEmbedDetector.EventType eventType, String playerName)
+            throws ExtractionException {
+        if (embed == null) {
+            throw new ExtractionException("Embed cannot be null");
+        }
+
+        if (eventType == null || eventType == EventEmbedDetector.EventType.UNKNOWN) {
             throw new ExtractionException("Could not determine event type from embed");
         }
 
-        String playerName = extractPlayerName(embed);
+        if (playerName == null) {
+            playerName = extractPlayerName(embed);
+        }
         if (playerName == null || playerName.trim().isEmpty()) {
             throw new ExtractionException("Could not extract player name from embed");
         }
@@ -0,0 +1,135 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hands {@link RelayEvent}s from the server thread to a dedicated
+ * "Viscord-Relay" consumer. Publishing is a single lock-free ring insert,
+ * plus an unpark only when the consumer is idle.
+ *
+ * Events published after {@link #open} but before {@link #start} wait in the
+ * ring and are relayed once the consumer starts.
+ */
+public class EventRelay {
+
+    // Upper bound on how long the idle consumer sleeps between checks
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Consumer<RelayEvent> handler;
+    private volatile MpscRing<RelayEvent> ring = new MpscRing<>(4096);
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile boolean accepting = false;
+    private volatile Thread consumer;
+    private volatile boolean waiting = false;
+    private volatile boolean stopping = false;
+
+    public EventRelay(Consumer<RelayEvent> handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Starts accepting events into a ring of (at least) the given capacity.
+     */
+    public synchronized void open(int capacity) {
+        if (accepting || consumer != null) {
+            return;
+        }
+        ring = new MpscRing<>(capacity);
+        accepting = true;
+    }
+
+    /**
+     * Starts the consumer, which first relays anything published since {@link #open}.
+     */
+    public synchronized void start() {
+        if (!accepting || consumer != null) {
+            return;
+        }
+        stopping = false;
+        Thread thread = new Thread(this::run, "Viscord-Relay");
+        thread.setDaemon(true);
+        consumer = thread;
+        thread.start();
+    }
+
+    /**
+     * Queues an event. Returns false if the relay is not running or the ring is full.
+     */
+    public boolean publish(RelayEvent event) {
+        if (!accepting) {
+            return false;
+        }
+        if (!ring.offer(event)) {
+            long dropped = droppedCount.incrementAndGet();
+            if (dropped == 1 || dropped % 1000 == 0) {
+                Viscord.LOGGER.warn("[Discord] Relay queue full, dropped {} events so far", dropped);
+            }
+            return false;
+        }
+        Thread thread = consumer;
+        if (thread != null && waiting) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Lets the consumer finish what is queued, waiting up to the given time.
+     */
+    public void stop(long timeoutMs) {
+        Thread thread;
+        synchronized (this) {
+            accepting = false;
+            thread = consumer;
+            if (thread == null) {
+                return;
+            }
+            stopping = true;
+            consumer = null;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            Viscord.LOGGER.warn("[Discord] Relay did not drain within {} ms", timeoutMs);
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void run() {
+        MpscRing<RelayEvent> queue = ring;
+        while (true) {
+            RelayEvent event = queue.poll();
+            if (event != null) {
+                try {
+                    handler.accept(event);
+                } catch (Exception e) {
+                    Viscord.LOGGER.error("[Discord] Error relaying {} event", event.type, e);
+                }
+                continue;
+            }
+            if (stopping) {
+                return;
+            }
+
+            waiting = true;
+            // Re-check after announcing, so an event published in between is not missed
+            if (queue.isEmpty() && !stopping) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            waiting = false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package network.vonix.viscord.discord;
+
+import org.javacord.api.event.channel.server.voice.ServerVoiceChannelMemberJoinEvent;
+import org.javacord.api.event.channel.server.voice.ServerVoiceChannelMemberLeaveEvent;
+import org.javacord.api.event.message.MessageCreateEvent;
+import org.javacord.api.event.message.MessageDeleteEvent;
+import org.javacord.api.event.message.MessageEditEvent;
+import org.javacord.api.event.message.reaction.ReactionAddEvent;
+import org.javacord.api.event.message.reaction.ReactionRemoveEvent;
+import org.javacord.api.event.server.member.ServerMemberJoinEvent;
+import org.javacord.api.event.server.member.ServerMemberLeaveEvent;
+import org.javacord.api.event.user.UserStartTypingEvent;
+import org.javacord.api.listener.channel.server.voice.ServerVoiceChannelMemberJoinListener;
+import org.javacord.api.listener.channel.server.voice.ServerVoiceChannelMemberLeaveListener;
+import org.javacord.api.listener.message.MessageCreateListener;
+import org.javacord.api.listener.message.MessageDeleteListener;
+import org.javacord.api.listener.message.MessageEditListener;
+import org.javacord.api.listener.message.reaction.ReactionAddListener;
+import org.javacord.api.listener.message.reaction.ReactionRemoveListener;
+import org.javacord.api.listener.server.member.ServerMemberJoinListener;
+import org.javacord.api.listener.server.member.ServerMemberLeaveListener;
+import org.javacord.api.listener.user.UserStartTypingListener;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts gateway events the bot receives, per type. Covers the common
+ * high-volume types, which is enough to see what the configured intents let through.
+ */
+public class GatewayEventCounter implements MessageCreateListener, MessageEditListener, MessageDeleteListener,
+        ReactionAddListener, ReactionRemoveListener, UserStartTypingListener, ServerMemberJoinListener,
+        ServerMemberLeaveListener, ServerVoiceChannelMemberJoinListener, ServerVoiceChannelMemberLeaveListener {
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    private void count(String type) {
+        counts.computeIfAbsent(type, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Returns the counts so far, sorted by event type.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((type, count) -> result.put(type, count.get()));
+        return result;
+    }
+
+    public void reset() {
+        counts.clear();
+    }
+
+    @Override
+    public void onMessageCreate(MessageCreateEvent event) {
+        count("MESSAGE_CREATE");
+    }
+
+    @Override
+    public void onMessageEdit(MessageEditEvent event) {
+        count("MESSAGE_UPDATE");
+    }
+
+    @Override
+    public void onMessageDelete(MessageDeleteEvent event) {
+        count("MESSAGE_DELETE");
+    }
+
+    @Override
+    public void onReactionAdd(ReactionAddEvent event) {
+        count("MESSAGE_REACTION_ADD");
+    }
+
+    @Override
+    public void onReactionRemove(ReactionRemoveEvent event) {
+        count("MESSAGE_REACTION_REMOVE");
+    }
+
+    @Override
+    public void onUserStartTyping(UserStartTypingEvent event) {
+        count("TYPING_START");
+    }
+
+    @Override
+    public void onServerMemberJoin(ServerMemberJoinEvent event) {
+        count("GUILD_MEMBER_ADD");
+    }
+
+    @Override
+    public void onServerMemberLeave(ServerMemberLeaveEvent event) {
+        count("GUILD_MEMBER_REMOVE");
+    }
+
+    @Override
+    public void onServerVoiceChannelMemberJoin(ServerVoiceChannelMemberJoinEvent event) {
+        count("VOICE_STATE_UPDATE");
+    }
+
+    @Override
+    public void onServerVoiceChannelMemberLeave(ServerVoiceChannelMemberLeaveEvent event) {
+        count("VOICE_STATE_UPDATE");
+    }
+}
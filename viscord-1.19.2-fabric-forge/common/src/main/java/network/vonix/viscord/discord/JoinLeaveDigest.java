@@ -0,0 +1,153 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Folds bursts of join or leave events into one digest post.
+ * While the number of events of a kind within the window stays at or below
+ * the threshold, each one is sent on its own. Once it goes above, further
+ * events are collected and posted together after the stream has been quiet
+ * for a full window (or after {@link #MAX_DIGEST_MS} at the latest), and
+ * single posts resume.
+ */
+public class JoinLeaveDigest {
+
+    /**
+     * A digest is posted after this long even if the burst is still going.
+     */
+    private static final long MAX_DIGEST_MS = 60000;
+
+    public enum Kind {
+        JOIN,
+        LEAVE
+    }
+
+    /**
+     * Receives single events and digests.
+     */
+    public interface Sink {
+        void sendSingle(Kind kind, String username, String uuid);
+
+        void sendDigest(Kind kind, List<String> usernames);
+    }
+
+    private final Sink sink;
+    private volatile int threshold = 0;
+    private volatile long windowMs = 10000;
+
+    // Guarded by this
+    private final Map<Kind, ArrayDeque<Long>> recent = new EnumMap<>(Kind.class);
+    private final Map<Kind, Digest> open = new EnumMap<>(Kind.class);
+
+    public JoinLeaveDigest(Sink sink) {
+        this.sink = sink;
+        for (Kind kind : Kind.values()) {
+            recent.put(kind, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Sets the burst threshold (events per window) and window in milliseconds.
+     * A threshold of zero disables digests.
+     */
+    public void configure(int threshold, long windowMs) {
+        this.threshold = Math.max(0, threshold);
+        this.windowMs = Math.max(1000, windowMs);
+        if (this.threshold == 0) {
+            flush();
+        }
+    }
+
+    public synchronized void submit(Kind kind, String username, String uuid) {
+        long now = System.currentTimeMillis();
+        long window = windowMs;
+
+        ArrayDeque<Long> times = recent.get(kind);
+        times.addLast(now);
+        while (!times.isEmpty() && times.peekFirst() <= now - window) {
+            times.pollFirst();
+        }
+
+        Digest digest = open.get(kind);
+        if (digest != null) {
+            digest.usernames.add(username);
+            rescheduleClose(kind, digest, now, window);
+            return;
+        }
+
+        int limit = threshold;
+        if (limit <= 0 || times.size() <= limit) {
+            sink.sendSingle(kind, username, uuid);
+            return;
+        }
+
+        Viscord.LOGGER.info("[Discord] {} burst detected, collecting into a digest", kind.name().toLowerCase());
+        digest = new Digest(now);
+        digest.usernames.add(username);
+        open.put(kind, digest);
+        rescheduleClose(kind, digest, now, window);
+    }
+
+    /**
+     * Posts any open digests right away (e.g. on shutdown).
+     */
+    public synchronized void flush() {
+        for (Kind kind : Kind.values()) {
+            close(kind, open.get(kind));
+        }
+    }
+
+    private void rescheduleClose(Kind kind, Digest digest, long now, long window) {
+        if (digest.timer != null) {
+            digest.timer.cancel(false);
+        }
+        long delay = Math.min(window, digest.openedAt + MAX_DIGEST_MS - now);
+        digest.timer = Viscord.schedule(() -> expire(kind, digest), Math.max(0, delay));
+        if (digest.timer == null) {
+            // Scheduler stopped; post now rather than never
+            close(kind, digest);
+        }
+    }
+
+    private synchronized void expire(Kind kind, Digest expired) {
+        // Ignore timers for digests that were already posted
+        if (open.get(kind) == expired) {
+            close(kind, expired);
+        }
+    }
+
+    private void close(Kind kind, Digest digest) {
+        if (digest == null) {
+            return;
+        }
+        open.remove(kind);
+        if (digest.timer != null) {
+            digest.timer.cancel(false);
+        }
+        try {
+            sink.sendDigest(kind, digest.usernames);
+        } catch (Exception e) {
+            Viscord.LOGGER.error("[Discord] Failed to send {} digest", kind.name().toLowerCase(), e);
+        }
+    }
+
+    /**
+     * Events collected during a burst.
+     */
+    private static final class Digest {
+        final long openedAt;
+        final List<String> usernames = new ArrayList<>();
+        ScheduledFuture<?> timer;
+
+        Digest(long openedAt) {
+            this.openedAt = openedAt;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package network.vonix.viscord.discord;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.Style;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns legacy § formatted text into components with real styles, so the codes
+ * no longer ride along inside a literal. Fixed pieces such as server prefixes
+ * are compiled once and the same component instance is appended to every
+ * message; only the variable parts of a message are built per message.
+ */
+public final class LegacyFormat {
+
+    // Compiled pieces are kept up to this many; past it they are compiled per use
+    private static final int MAX_CACHED = 256;
+
+    private static final Map<String, Component> PREFIXES = new ConcurrentHashMap<>();
+    private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    private LegacyFormat() {
+    }
+
+    /**
+     * Parses § codes: a color resets the style, k-o add a format, r resets.
+     * Unknown codes are kept as text.
+     */
+    public static MutableComponent parse(String legacy) {
+        MutableComponent root = Component.empty();
+        Style style = Style.EMPTY;
+        StringBuilder run = new StringBuilder();
+        for (int i = 0, length = legacy.length(); i < length; i++) {
+            char c = legacy.charAt(i);
+            ChatFormatting format = c == '§' && i + 1 < length ? ChatFormatting.getByCode(legacy.charAt(i + 1)) : null;
+            if (format == null) {
+                run.append(c);
+                continue;
+            }
+            if (run.length() > 0) {
+                root.append(Component.literal(run.toString()).setStyle(style));
+                run.setLength(0);
+            }
+            style = apply(style, format);
+            i++;
+        }
+        if (run.length() > 0) {
+            root.append(Component.literal(run.toString()).setStyle(style));
+        }
+        return root;
+    }
+
+    private static Style apply(Style style, ChatFormatting format) {
+        if (format == ChatFormatting.RESET) {
+            return Style.EMPTY;
+        }
+        return format.isColor() ? Style.EMPTY.withColor(format) : style.applyFormat(format);
+    }
+
+    /**
+     * The shared "§a[Server] " component for a server prefix such as "[Server]".
+     * Do not modify the result.
+     */
+    public static Component serverPrefix(String prefix) {
+        Component component = PREFIXES.get(prefix);
+        if (component == null) {
+            component = parse("§a" + prefix + " ");
+            if (PREFIXES.size() < MAX_CACHED) {
+                PREFIXES.put(prefix, component);
+            }
+        }
+        return component;
+    }
+
+    /**
+     * The compiled template for a format string with {@code {placeholder}} slots.
+     */
+    public static Template template(String format, String... placeholders) {
+        Template template = TEMPLATES.get(format);
+        if (template == null) {
+            template = new Template(format, placeholders);
+            if (TEMPLATES.size() < MAX_CACHED) {
+                TEMPLATES.put(format, template);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * A legacy format string split into shared constant components and slots.
+     * Each slot remembers the style in effect where it appears, which its
+     * value inherits.
+     */
+    public static final class Template {
+        private final List<Object> parts;
+        private final String[] placeholders;
+
+        private Template(String format, String[] placeholders) {
+            this.placeholders = placeholders;
+            List<Object> compiled = new ArrayList<>();
+            MutableComponent constant = Component.empty();
+            boolean constantUsed = false;
+            Style style = Style.EMPTY;
+            StringBuilder run = new StringBuilder();
+
+            int i = 0;
+            int length = format.length();
+            while (i < length) {
+                char c = format.charAt(i);
+                ChatFormatting code = c == '§' && i + 1 < length ? ChatFormatting.getByCode(format.charAt(i + 1)) : null;
+                int slot = c == '{' ? slotAt(format, i) : -1;
+                if (code == null && slot < 0) {
+                    run.append(c);
+                    i++;
+                    continue;
+                }
+                if (run.length() > 0) {
+                    constant.append(Component.literal(run.toString()).setStyle(style));
+                    constantUsed = true;
+                    run.setLength(0);
+                }
+                if (code != null) {
+                    style = apply(style, code);
+                    i += 2;
+                } else {
+                    if (constantUsed) {
+                        compiled.add(constant);
+                        constant = Component.empty();
+                        constantUsed = false;
+                    }
+                    compiled.add(new Slot(slot, style));
+                    i += placeholders[slot].length() + 2;
+                }
+            }
+            if (run.length() > 0) {
+                constant.append(Component.literal(run.toString()).setStyle(style));
+                constantUsed = true;
+            }
+            if (constantUsed) {
+                compiled.add(constant);
+            }
+            this.parts = Collections.unmodifiableList(compiled);
+        }
+
+        private int slotAt(String format, int at) {
+            for (int slot = 0; slot < placeholders.length; slot++) {
+                String name = placeholders[slot];
+                if (format.startsWith(name, at + 1) && format.startsWith("}", at + 1 + name.length())) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Builds a message with the given values, in placeholder order.
+         */
+        public MutableComponent render(Component... values) {
+            MutableComponent root = Component.empty();
+            for (Object part : parts) {
+                if (part instanceof Slot) {
+                    Slot slot = (Slot) part;
+                    root.append(Component.empty().setStyle(slot.style).append(values[slot.index]));
+                } else {
+                    root.append((Component) part);
+                }
+            }
+            return root;
+        }
+    }
+
+    private static final class Slot {
+        final int index;
+        final Style style;
+
+        Slot(int index, Style style) {
+            this.index = index;
+            this.style = style;
+        }
+    }
+}
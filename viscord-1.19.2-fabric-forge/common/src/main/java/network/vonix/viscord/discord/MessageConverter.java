@@ -10,23 +10,25 @@ import org.javacord.api.entity.message.MessageAttachment;
 import org.javacord.api.entity.message.embed.Embed;
 import org.javacord.api.entity.message.embed.EmbedField;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Handles conversion between Discord messages/embeds and Minecraft components.
  * Implements "Embed Repairing" and "Chat Formatting".
  */
 public class MessageConverter {
 
-    private static final Pattern URL_PATTERN = Pattern.compile("https?:\\/\\/(www\\.)?[-a-zA-Z0-9@:%._\\+~#=]{1,256}\\.[a-zA-Z0-9()]{1,6}\\b([-a-zA-Z0-9()@:%_\\+.~#?&//=]*)");
-    private static final Pattern DISCORD_FORMATTING_PATTERN = Pattern.compile("(\\*\\*|\\*|__|~~|`|\\|\\|)");
-
     /**
      * Converts a Discord Message to a Minecraft Component.
      * Handles text, attachments, and embeds.
      */
     public static Component toMinecraft(Message message) {
+        return toMinecraft(message, message.getContent());
+    }
+
+    /**
+     * Converts a Discord Message to a Minecraft Component, using {@code content}
+     * (e.g. with mentions resolved) in place of the raw message text.
+     */
+    public static Component toMinecraft(Message message, String content) {
         MutableComponent root = Component.literal("");
 
         // 1. Author Name (with hover tooltip)
@@ -39,7 +41,6 @@ public class MessageConverter {
         root.append(authorComponent);
 
         // 2. Message Content (if present)
-        String content = message.getContent();
         if (!content.isEmpty()) {
             root.append(parseMarkdown(content));
         }
@@ -113,7 +114,7 @@ public class MessageConverter {
         // Footer
         if (embed.getFooter().isPresent()) {
             embedComponent.append(Component.literal("│ ").withStyle(ChatFormatting.DARK_GRAY));
-            embedComponent.append(Component.literal(embed.getFooter().get().getText().orElse("")).withStyle(ChatFormatting.GRAY, ChatFormatting.ITALIC));
+            embedComponent.append(Component.literal(EmbedEnvelope.strip(embed.getFooter().get().getText().orElse(""))).withStyle(ChatFormatting.GRAY, ChatFormatting.ITALIC));
             embedComponent.append("\n");
         }
 
@@ -124,51 +125,9 @@ public class MessageConverter {
     }
 
     /**
-     * Parses simple Markdown (bold, italic, underline, strikethrough) and Links.
+     * Renders Discord markdown (formatting, code, links) as a component.
      */
     private static Component parseMarkdown(String text) {
-        // This is a simplified parser. A full Markdown parser is complex.
-        // For now, we handle links and return the rest as literal text,
-        // effectively stripping some markdown chars if we wanted, or just displaying them.
-        // Ideally, we'd split by pattern and style segments.
-
-        MutableComponent root = Component.literal("");
-        Matcher matcher = URL_PATTERN.matcher(text);
-
-        int lastEnd = 0;
-        while (matcher.find()) {
-            String pre = text.substring(lastEnd, matcher.start());
-            if (!pre.isEmpty()) {
-                root.append(formatText(pre));
-            }
-
-            String url = matcher.group();
-            MutableComponent link = Component.literal(url)
-                    .withStyle(Style.EMPTY
-                            .withColor(ChatFormatting.BLUE)
-                            .withUnderlined(true)
-                            .withClickEvent(new net.minecraft.network.chat.ClickEvent(net.minecraft.network.chat.ClickEvent.Action.OPEN_URL, url)));
-            root.append(link);
-
-            lastEnd = matcher.end();
-        }
-
-        String remaining = text.substring(lastEnd);
-        if (!remaining.isEmpty()) {
-            root.append(formatText(remaining));
-        }
-
-        return root;
-    }
-
-    /**
-     * Apply basic formatting based on Discord markdown symbols.
-     * Note: This simple implementation doesn't handle nested formatting perfectly.
-     */
-    private static Component formatText(String text) {
-        // For now, return literal text.
-        // Implementing full markdown -> Component parsing is non-trivial without a library.
-        // We can just strip the markers or display them.
-        return Component.literal(text);
+        return DiscordMarkdown.render(text);
     }
 }
@@ -0,0 +1,75 @@
+package network.vonix.viscord.discord;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link EventRelay} hand-off: events queued before start and before stop all
+ * reach the handler, in order.
+ */
+class EventRelayTest {
+
+    @Test
+    void stopDrainsWhatIsQueued() {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        EventRelay relay = new EventRelay(event -> handled.add(event.text));
+        relay.open(8192);
+
+        // Queued before the consumer runs
+        for (int i = 0; i < 100; i++) {
+            assertTrue(relay.publish(RelayEvent.death("early " + i)));
+        }
+        relay.start();
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(relay.publish(RelayEvent.death("late " + i)));
+        }
+        relay.stop(5000);
+
+        assertEquals(5100, handled.size());
+        assertEquals("early 0", handled.get(0));
+        assertEquals("late 0", handled.get(100));
+        assertEquals("late 4999", handled.get(5099));
+        assertFalse(relay.publish(RelayEvent.death("after stop")));
+    }
+
+    @Test
+    void countsEventsDroppedWhenFull() {
+        EventRelay relay = new EventRelay(event -> { });
+        relay.open(4);
+
+        for (int i = 0; i < 6; i++) {
+            relay.publish(RelayEvent.death("event " + i));
+        }
+
+        assertEquals(2, relay.getDroppedCount());
+        relay.start();
+        relay.stop(5000);
+    }
+
+    @Test
+    void keepsRunningThroughHandlerErrors() {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        EventRelay relay = new EventRelay(event -> {
+            if (event.text.equals("bad")) {
+                throw new IllegalStateException("boom");
+            }
+            handled.add(event.text);
+        });
+        relay.open(16);
+        relay.start();
+
+        relay.publish(RelayEvent.death("a"));
+        relay.publish(RelayEvent.death("bad"));
+        relay.publish(RelayEvent.death("b"));
+        relay.stop(5000);
+
+        assertEquals(List.of("a", "b"), handled);
+    }
+}
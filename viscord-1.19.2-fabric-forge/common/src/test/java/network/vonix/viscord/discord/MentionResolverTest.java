@@ -0,0 +1,46 @@
+package network.vonix.viscord.discord;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Snowflake parsing in {@link MentionResolver}: anything that is not a
+ * positive long is rejected instead of wrapping around.
+ */
+class MentionResolverTest {
+
+    @Test
+    void parsesSnowflakes() {
+        assertEquals(0L, parse("0"));
+        assertEquals(123456789012345678L, parse("123456789012345678"));
+        assertEquals(Long.MAX_VALUE, parse(Long.toString(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void parsesOnlyTheGivenRange() {
+        String text = "<@!123456789012345678>";
+
+        assertEquals(123456789012345678L, MentionResolver.parseId(text, 3, text.length() - 1));
+    }
+
+    @Test
+    void rejectsValuesAboveLongMax() {
+        assertEquals(-1, parse("9223372036854775808"));
+        assertEquals(-1, parse("9999999999999999999"));
+        assertEquals(-1, parse("18446744073709551615"));
+        assertEquals(-1, parse("99999999999999999999"));
+    }
+
+    @Test
+    void rejectsEmptyAndNonDigits() {
+        assertEquals(-1, parse(""));
+        assertEquals(-1, parse("12a4"));
+        assertEquals(-1, parse("-1"));
+        assertEquals(-1, parse("\uFF11\uFF12\uFF13"));
+    }
+
+    private static long parse(String digits) {
+        return MentionResolver.parseId(digits, 0, digits.length());
+    }
+}
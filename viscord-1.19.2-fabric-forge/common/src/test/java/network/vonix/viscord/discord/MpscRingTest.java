@@ -0,0 +1,169 @@
+package network.vonix.viscord.discord;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link MpscRing} under contention: nothing lost, nothing duplicated, and each
+ * producer's elements come out in the order it offered them.
+ */
+class MpscRingTest {
+
+    private static final int PRODUCERS = 4;
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertEquals(2, new MpscRing<>(0).capacity());
+        assertEquals(2, new MpscRing<>(2).capacity());
+        assertEquals(8, new MpscRing<>(5).capacity());
+        assertEquals(4096, new MpscRing<>(4096).capacity());
+    }
+
+    @Test
+    void dropsWhenFullAndTakesMoreOnceDrained() {
+        MpscRing<Integer> ring = new MpscRing<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+
+        assertFalse(ring.offer(4));
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4));
+        assertFalse(ring.offer(5));
+
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, ring.poll());
+        }
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void keepsOrderAcrossManyLaps() {
+        MpscRing<Integer> ring = new MpscRing<>(8);
+        int next = 0;
+        int expected = 0;
+        // Uneven batches so head and tail wrap at different slots
+        for (int lap = 0; lap < 10_000; lap++) {
+            for (int i = 0; i < 1 + lap % 8; i++) {
+                assertTrue(ring.offer(next++));
+            }
+            for (int i = 0; i < 1 + lap % 8; i++) {
+                assertEquals(expected++, ring.poll());
+            }
+        }
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void deliversEveryElementFromManyProducers() {
+        int perProducer = 100_000;
+        MpscRing<Long> ring = new MpscRing<>(64);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            List<Thread> producers = startProducers(ring, perProducer, true, new AtomicInteger());
+
+            long[] last = new long[PRODUCERS];
+            Arrays.fill(last, -1);
+            int received = 0;
+            while (received < PRODUCERS * perProducer) {
+                Long element = ring.poll();
+                if (element == null) {
+                    Thread.yield();
+                    continue;
+                }
+                checkOrder(last, element);
+                received++;
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            for (long value : last) {
+                assertEquals(perProducer - 1, value);
+            }
+            assertNull(ring.poll());
+        });
+    }
+
+    @Test
+    void dropsOnlyWhatItRefusesWhenProducersOutrunTheConsumer() {
+        int perProducer = 100_000;
+        MpscRing<Long> ring = new MpscRing<>(16);
+        AtomicInteger accepted = new AtomicInteger();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            List<Thread> producers = startProducers(ring, perProducer, false, accepted);
+
+            long[] last = new long[PRODUCERS];
+            Arrays.fill(last, -1);
+            int received = 0;
+            boolean done = false;
+            while (true) {
+                Long element = ring.poll();
+                if (element != null) {
+                    checkOrder(last, element);
+                    received++;
+                } else if (done) {
+                    break;
+                } else {
+                    done = producers.stream().noneMatch(Thread::isAlive);
+                }
+            }
+
+            assertEquals(accepted.get(), received);
+            assertTrue(received < PRODUCERS * perProducer, "expected some offers to be refused");
+        });
+    }
+
+    /**
+     * Producers offer {@code producer << 32 | sequence}, retrying refused
+     * offers or counting accepted ones.
+     */
+    private static List<Thread> startProducers(MpscRing<Long> ring, int perProducer, boolean retry,
+            AtomicInteger accepted) {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            long id = (long) p << 32;
+            Thread producer = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    if (ring.offer(id | i)) {
+                        accepted.incrementAndGet();
+                    } else if (retry) {
+                        i--;
+                        Thread.yield();
+                    }
+                }
+            }, "producer-" + p);
+            producer.setDaemon(true);
+            producer.start();
+            producers.add(producer);
+        }
+        go.countDown();
+        return producers;
+    }
+
+    private static void checkOrder(long[] last, long element) {
+        int producer = (int) (element >>> 32);
+        long sequence = element & 0xFFFFFFFFL;
+        assertTrue(sequence > last[producer], "producer " + producer + " went from " + last[producer] + " to " + sequence);
+        last[producer] = sequence;
+    }
+}
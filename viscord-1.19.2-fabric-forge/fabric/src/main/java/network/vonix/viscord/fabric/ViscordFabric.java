@@ -36,9 +36,11 @@ public final class ViscordFabric implements DedicatedServerModInitializer {
                 String content = message.getContent().getString();
                 String username = player.getGameProfile().getName();
                 String uuid = player.getUUID().toString();
+                // Timestamp and salt are part of the signed body, so they identify the message even when unsigned
+                String messageId = message.timeStamp().toEpochMilli() + ":" + message.salt();
 
                 // Send to Discord
-                DiscordManager.getInstance().sendChatMessage(username, content, uuid);
+                DiscordManager.getInstance().sendChatMessage(username, content, uuid, messageId);
             }
         });
     }
@@ -6,21 +6,64 @@ import org.javacord.api.DiscordApiBuilder;
 import org.javacord.api.entity.activity.ActivityType;
 import org.javacord.api.entity.intent.Intent;
 
+import java.util.EnumSet;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.javacord.api.event.message.MessageCreateEvent;
+import org.javacord.api.listener.message.MessageCreateListener;
 
 /**
  * Handles the persistent Bot connection via Javacord.
  * Used for receiving messages, events, and updating status.
+ *
+ * Failed logins are retried with jittered exponential backoff. Once logged in,
+ * Javacord resumes or reconnects the gateway session on its own, using the
+ * same backoff; every transition is published to state listeners.
  */
 public class BotClient {
 
-    private DiscordApi api;
+    private static final long BACKOFF_BASE_MS = 2000;
+    private static final long BACKOFF_MAX_MS = 300000;
+    private static final java.util.Map<Integer, java.awt.Color> COLORS = new java.util.concurrent.ConcurrentHashMap<>();
+
+    /**
+     * Gateway connection states.
+     */
+    public enum ConnectionState {
+        /** Not started, the token is missing, or waiting to retry a failed login. */
+        DISCONNECTED,
+        /** Logging in. */
+        CONNECTING,
+        CONNECTED,
+        /** The gateway connection dropped; Javacord is resuming or reconnecting. */
+        RECONNECTING,
+        /** Disconnected on purpose; no more retries. */
+        STOPPED
+    }
+
+    private volatile DiscordApi api;
+    private volatile ConnectionState state = ConnectionState.DISCONNECTED;
+    // Set when connect() found no usable token; the bot stays offline until the next start
+    private volatile boolean disabled = false;
+    private final List<Consumer<ConnectionState>> stateListeners = new CopyOnWriteArrayList<>();
+    // Guarded by this
+    private int loginAttempts = 0;
+    private ScheduledFuture<?> retryTimer;
+    private CompletableFuture<Void> firstConnect = new CompletableFuture<>();
+
     private String token;
     private String channelId;
     private Consumer<MessageCreateEvent> messageHandler;
+    private boolean leanCache = true;
+    private EnumSet<Intent> intents = IntentPlanner.plan(false, null);
+    private final GatewayEventCounter eventCounter = new GatewayEventCounter();
 
     public BotClient() {
         // Initialize in disconnected state
@@ -30,42 +73,175 @@ public class BotClient {
         this.messageHandler = handler;
     }
 
-    public CompletableFuture<Void> connect(String token, String channelId) {
+    /**
+     * Lean mode turns off Javacord's user and message caches, before the gateway
+     * connects; author names come from each message's own payload. Messages
+     * arrive complete in their create events, so nothing reads them back.
+     */
+    public void setLeanCache(boolean leanCache) {
+        this.leanCache = leanCache;
+    }
+
+    /**
+     * Sets the gateway intents used on the next connect (see {@link IntentPlanner}).
+     */
+    public void setIntents(EnumSet<Intent> intents) {
+        this.intents = EnumSet.copyOf(intents);
+    }
+
+    public EnumSet<Intent> getIntents() {
+        return EnumSet.copyOf(intents);
+    }
+
+    public GatewayEventCounter getEventCounter() {
+        return eventCounter;
+    }
+
+    /**
+     * Listens for connection state changes. Called on whichever thread made the change.
+     */
+    public void addStateListener(Consumer<ConnectionState> listener) {
+        stateListeners.add(listener);
+    }
+
+    public ConnectionState getState() {
+        return state;
+    }
+
+    /**
+     * True if the last {@link #connect} had no usable token (webhook-only setup).
+     * Embeds cannot be sent until the next start.
+     */
+    public boolean isDisabled() {
+        return disabled;
+    }
+
+    /**
+     * Starts connecting. The returned future completes once the first login
+     * succeeds, however many retries that takes.
+     */
+    public synchronized CompletableFuture<Void> connect(String token, String channelId) {
         this.token = token;
         this.channelId = channelId;
-        return connect();
-    }
 
-    private CompletableFuture<Void> connect() {
         if (token == null || token.isEmpty() || token.equals("YOUR_BOT_TOKEN_HERE")) {
             Viscord.LOGGER.warn("Bot token not configured.");
+            disabled = true;
             return CompletableFuture.completedFuture(null);
         }
+        disabled = false;
 
         // Prevent double connection
-        if (api != null) {
+        if (state == ConnectionState.CONNECTING || state == ConnectionState.CONNECTED
+                || state == ConnectionState.RECONNECTING || retryTimer != null) {
             Viscord.LOGGER.warn("[Discord] Bot already connected, skipping duplicate connect.");
-            return CompletableFuture.completedFuture(null);
+            return firstConnect;
         }
 
+        firstConnect = new CompletableFuture<>();
+        loginAttempts = 0;
+        setState(ConnectionState.CONNECTING);
+        login();
+        return firstConnect;
+    }
+
+    private void login() {
         Viscord.LOGGER.info("Connecting to Discord...");
 
-        return new DiscordApiBuilder()
+        Viscord.LOGGER.info("[Discord] Gateway intents: {}", intents);
+        DiscordApiBuilder builder = new DiscordApiBuilder()
                 .setToken(token)
-                .setAllIntentsExcept(Intent.GUILD_PRESENCES, Intent.GUILD_MEMBERS)
-                .login()
-                .thenAccept(this::onConnected)
-                .exceptionally(throwable -> {
-                    Viscord.LOGGER.error("Failed to connect to Discord", throwable);
-                    return null;
-                });
+                .setIntents(intents.toArray(new Intent[0]));
+        if (leanCache) {
+            builder.setUserCacheEnabled(false);
+            // The builder has no message cache setting. Listener functions are applied to the new
+            // api before it opens the gateway, so size the cache there rather than after login,
+            // when the startup events would already have filled it
+            Function<DiscordApi, MessageCreateListener> sizeCaches = api -> {
+                api.setMessageCacheSize(0, 0);
+                return eventCounter;
+            };
+            builder.addListener(MessageCreateListener.class, sizeCaches);
+        } else {
+            builder.addListener(MessageCreateListener.class, eventCounter);
+        }
+
+        builder.login().whenComplete((loggedIn, throwable) -> {
+            if (throwable != null) {
+                onLoginFailed(throwable);
+            } else {
+                onConnected(loggedIn);
+            }
+        });
+    }
+
+    private synchronized void onLoginFailed(Throwable throwable) {
+        if (state == ConnectionState.STOPPED) {
+            return;
+        }
+        loginAttempts++;
+        long delay = backoffMs(loginAttempts);
+        Viscord.LOGGER.error("[Discord] Failed to connect to Discord (attempt {}), retrying in {} s",
+                loginAttempts, delay / 1000, throwable);
+        setState(ConnectionState.DISCONNECTED);
+        retryTimer = Viscord.schedule(this::retryLogin, delay);
+    }
+
+    private synchronized void retryLogin() {
+        retryTimer = null;
+        if (state == ConnectionState.DISCONNECTED) {
+            setState(ConnectionState.CONNECTING);
+            login();
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: a random delay between half and all of
+     * {@code base * 2^(attempt-1)}, capped.
+     */
+    private static long backoffMs(int attempt) {
+        long ceiling = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(attempt - 1, 16));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
     }
 
     private void onConnected(DiscordApi api) {
-        this.api = api;
+        synchronized (this) {
+            if (state == ConnectionState.STOPPED) {
+                // Disconnected while the login was in flight
+                api.disconnect();
+                return;
+            }
+            this.api = api;
+            loginAttempts = 0;
+        }
         Viscord.LOGGER.info("Connected as {}", api.getYourself().getDiscriminatedName());
 
-        // Register Listeners
+        // Javacord keeps the session alive from here on; use the same backoff for its reconnects
+        api.setReconnectDelay(attempt -> (int) Math.max(1, backoffMs(attempt) / 1000));
+        api.addLostConnectionListener(event -> {
+            Viscord.LOGGER.warn("[Discord] Lost gateway connection, reconnecting...");
+            setState(ConnectionState.RECONNECTING);
+        });
+        api.addResumeListener(event -> {
+            Viscord.LOGGER.info("[Discord] Gateway session resumed");
+            setState(ConnectionState.CONNECTED);
+        });
+        api.addReconnectListener(event -> {
+            Viscord.LOGGER.info("[Discord] Gateway reconnected with a new session");
+            setState(ConnectionState.CONNECTED);
+        });
+
+        // Register Listeners (message creates are counted from the builder on)
+        api.addMessageEditListener(eventCounter);
+        api.addMessageDeleteListener(eventCounter);
+        api.addReactionAddListener(eventCounter);
+        api.addReactionRemoveListener(eventCounter);
+        api.addUserStartTypingListener(eventCounter);
+        api.addServerMemberJoinListener(eventCounter);
+        api.addServerMemberLeaveListener(eventCounter);
+        api.addServerVoiceChannelMemberJoinListener(eventCounter);
+        api.addServerVoiceChannelMemberLeaveListener(eventCounter);
+
         api.addMessageCreateListener(event -> {
             if (messageHandler != null) {
                 // Ignore self
@@ -75,70 +251,133 @@ public class BotClient {
                 messageHandler.accept(event);
             }
         });
+
+        setState(ConnectionState.CONNECTED);
+        firstConnect.complete(null);
+    }
+
+    private void setState(ConnectionState newState) {
+        synchronized (this) {
+            ConnectionState previous = state;
+            // Late Javacord events must not revive a stopped client
+            if (previous == newState
+                    || (previous == ConnectionState.STOPPED && newState != ConnectionState.CONNECTING)) {
+                return;
+            }
+            state = newState;
+        }
+        for (Consumer<ConnectionState> listener : stateListeners) {
+            try {
+                listener.accept(newState);
+            } catch (Exception e) {
+                Viscord.LOGGER.error("[Discord] Error in connection state listener", e);
+            }
+        }
     }
 
+    /**
+     * Sets the "Playing" activity. The bot is already online after login, so this is
+     * a single presence update.
+     */
     public void updateStatus(String status) {
-        if (api != null) {
-            api.updateActivity(ActivityType.PLAYING, status);
-            api.updateStatus(org.javacord.api.entity.user.UserStatus.ONLINE);
+        DiscordApi current = api;
+        if (current != null) {
+            current.updateActivity(ActivityType.PLAYING, status);
         }
     }
 
     public void disconnect() {
-        if (api != null) {
-            api.disconnect();
+        DiscordApi current;
+        synchronized (this) {
+            if (retryTimer != null) {
+                retryTimer.cancel(false);
+                retryTimer = null;
+            }
+            setState(ConnectionState.STOPPED);
+            current = api;
             api = null;
         }
+        if (current != null) {
+            current.disconnect();
+        }
     }
 
     public CompletableFuture<org.javacord.api.entity.message.Message> sendEmbed(String channelId,
-            com.google.gson.JsonObject embedJson) {
-        if (api == null) {
-            Viscord.LOGGER.warn("[Discord] Cannot send embed - API is null (bot not connected)");
-            return CompletableFuture.completedFuture(null);
+            OutgoingEmbed source) {
+        if (disabled) {
+            Viscord.LOGGER.warn("[Discord] Cannot send embed - bot token not configured");
+            return CompletableFuture.failedFuture(new DeliveryException("Bot not configured", false));
+        }
+        // Only send while the gateway is up; the outbox keeps embeds until it is back
+        DiscordApi current = api;
+        ConnectionState currentState = state;
+        if (current == null || currentState != ConnectionState.CONNECTED) {
+            Viscord.LOGGER.debug("[Discord] Cannot send embed - bot is {}", currentState);
+            return CompletableFuture.failedFuture(
+                    new DeliveryException("Bot not connected (" + currentState + ")", true));
         }
 
         Viscord.LOGGER.info("[Discord] Attempting to send embed to channel ID: {}", channelId);
 
-        return api.getTextChannelById(channelId).map(channel -> {
+        return current.getTextChannelById(channelId).map(channel -> {
             org.javacord.api.entity.message.embed.EmbedBuilder embed = new org.javacord.api.entity.message.embed.EmbedBuilder();
 
-            if (embedJson.has("title"))
-                embed.setTitle(embedJson.get("title").getAsString());
-            if (embedJson.has("description"))
-                embed.setDescription(embedJson.get("description").getAsString());
-            if (embedJson.has("color"))
-                embed.setColor(new java.awt.Color(embedJson.get("color").getAsInt()));
-
-            if (embedJson.has("fields")) {
-                com.google.gson.JsonArray fields = embedJson.getAsJsonArray("fields");
-                for (com.google.gson.JsonElement fieldElem : fields) {
-                    com.google.gson.JsonObject field = fieldElem.getAsJsonObject();
-                    embed.addField(
-                            field.get("name").getAsString(),
-                            field.get("value").getAsString(),
-                            field.has("inline") && field.get("inline").getAsBoolean());
-                }
-            }
-
-            if (embedJson.has("footer")) {
-                com.google.gson.JsonObject footer = embedJson.getAsJsonObject("footer");
-                embed.setFooter(footer.get("text").getAsString());
-            }
-
-            if (embedJson.has("thumbnail")) {
-                com.google.gson.JsonObject thumbnail = embedJson.getAsJsonObject("thumbnail");
-                embed.setThumbnail(thumbnail.get("url").getAsString());
+            if (source.title != null)
+                embed.setTitle(source.title);
+            if (source.description != null)
+                embed.setDescription(source.description);
+            if (source.color != null)
+                embed.setColor(colorOf(source.color));
+            for (OutgoingEmbed.Field field : source.fields) {
+                embed.addField(field.name, field.value, field.inline);
             }
+            if (source.footerText != null)
+                embed.setFooter(source.footerText);
+            if (source.thumbnailUrl != null)
+                embed.setThumbnail(source.thumbnailUrl);
 
             // Set timestamp to now
             embed.setTimestampToNow();
 
-            return channel.sendMessage(embed);
-        }).orElse(CompletableFuture.completedFuture(null));
+            return channel.sendMessage(embed).handle((message, error) -> {
+                if (error != null) {
+                    throw new CompletionException(toDeliveryException(error));
+                }
+                return message;
+            });
+        }).orElseGet(() -> {
+            Viscord.LOGGER.warn("[Discord] Cannot send embed - no text channel {} visible to the bot", channelId);
+            return CompletableFuture.failedFuture(new DeliveryException("Unknown channel " + channelId, false));
+        });
+    }
+
+    /**
+     * Javacord only takes AWT colors; the few embed colors in use are created once.
+     */
+    private static java.awt.Color colorOf(int rgb) {
+        java.awt.Color color = COLORS.get(rgb);
+        if (color == null) {
+            color = new java.awt.Color(rgb);
+            if (COLORS.size() < 64) {
+                COLORS.put(rgb, color);
+            }
+        }
+        return color;
+    }
+
+    /**
+     * Wraps a Javacord failure. Requests Discord refused outright are not worth
+     * retrying; anything else (network, 5xx) may succeed later.
+     */
+    private static DeliveryException toDeliveryException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        boolean rejected = cause instanceof org.javacord.api.exception.BadRequestException
+                || cause instanceof org.javacord.api.exception.MissingPermissionsException
+                || cause instanceof org.javacord.api.exception.NotFoundException;
+        return new DeliveryException("Failed to send embed", cause, !rejected);
     }
 
     public boolean isConnected() {
-        return api != null;
+        return state == ConnectionState.CONNECTED;
     }
 }
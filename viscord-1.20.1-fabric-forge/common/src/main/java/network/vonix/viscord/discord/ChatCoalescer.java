@@ -0,0 +1,129 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Merges consecutive chat lines from the same webhook identity into one post.
+ * The first line opens a window; lines from the same username that arrive
+ * before it closes are appended with newlines, up to Discord's content limit.
+ * A line from anyone else flushes the pending post immediately, so the order
+ * of messages in the channel is unchanged.
+ */
+public class ChatCoalescer {
+
+    /**
+     * Discord rejects message content longer than this.
+     */
+    public static final int MAX_CONTENT_LENGTH = 2000;
+
+    /**
+     * Receives the merged posts.
+     */
+    public interface Sink {
+        void send(String username, String avatarUrl, String content);
+    }
+
+    private final Sink sink;
+    private volatile long windowMs = 0;
+
+    // Guarded by this
+    private Pending pending;
+
+    public ChatCoalescer(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Sets the coalescing window in milliseconds. Zero disables coalescing.
+     */
+    public void setWindow(long windowMs) {
+        this.windowMs = Math.max(0, windowMs);
+        if (this.windowMs == 0) {
+            flush();
+        }
+    }
+
+    public void submit(String username, String avatarUrl, String content) {
+        long window = windowMs;
+        synchronized (this) {
+            if (pending != null) {
+                if (pending.canAppend(username, content)) {
+                    pending.append(content);
+                    return;
+                }
+                flushLocked();
+            }
+
+            if (window <= 0 || content.length() >= MAX_CONTENT_LENGTH) {
+                sink.send(username, avatarUrl, content);
+                return;
+            }
+
+            Pending opened = new Pending(username, avatarUrl, content);
+            opened.timer = Viscord.schedule(() -> expire(opened), window);
+            if (opened.timer == null) {
+                // Scheduler stopped; nothing would ever close the window
+                sink.send(username, avatarUrl, content);
+                return;
+            }
+            pending = opened;
+        }
+    }
+
+    /**
+     * Sends whatever is pending right away (e.g. on shutdown).
+     */
+    public synchronized void flush() {
+        flushLocked();
+    }
+
+    private synchronized void expire(Pending expired) {
+        // Ignore timers for posts that were already flushed early
+        if (pending == expired) {
+            flushLocked();
+        }
+    }
+
+    private void flushLocked() {
+        if (pending == null) {
+            return;
+        }
+        Pending toSend = pending;
+        pending = null;
+        if (toSend.timer != null) {
+            toSend.timer.cancel(false);
+        }
+        try {
+            sink.send(toSend.username, toSend.avatarUrl, toSend.content.toString());
+        } catch (Exception e) {
+            Viscord.LOGGER.error("[Discord] Failed to send coalesced chat message", e);
+        }
+    }
+
+    /**
+     * A post that is still collecting lines.
+     */
+    private static final class Pending {
+        final String username;
+        final String avatarUrl;
+        final StringBuilder content;
+        ScheduledFuture<?> timer;
+
+        Pending(String username, String avatarUrl, String firstLine) {
+            this.username = username;
+            this.avatarUrl = avatarUrl;
+            this.content = new StringBuilder(firstLine);
+        }
+
+        boolean canAppend(String otherUsername, String line) {
+            return username.equals(otherUsername)
+                    && content.length() + 1 + line.length() <= MAX_CONTENT_LENGTH;
+        }
+
+        void append(String line) {
+            content.append('\n').append(line);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package network.vonix.viscord.discord;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Machine-readable tag that Viscord appends to the footer of every embed it
+ * sends, so other Viscord servers on the channel can read the event type and
+ * player straight from the embed instead of guessing from keywords.
+ *
+ * The tag is invisible in Discord: a marker character followed by the payload
+ * bytes written as zero-width characters, two bits each. The payload is a
+ * version digit, a one-letter kind code and the player name in UTF-8.
+ * Embeds without a readable tag (other bots, older versions) decode to null.
+ */
+public final class EmbedEnvelope {
+
+    public static final int VERSION = 1;
+
+    public enum Kind {
+        JOIN('J'),
+        LEAVE('L'),
+        DEATH('D'),
+        ADVANCEMENT('A'),
+        GOAL('G'),
+        CHALLENGE('C'),
+        DIGEST('X'),
+        STATUS('S'),
+        PLAYER_LIST('P');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+
+        private static Kind fromCode(char code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Invisible separator, then two bits per zero-width character
+    private static final char MARKER = '\u2063';
+    private static final char[] DIGITS = {'\u200B', '\u200C', '\u200D', '\u2060'};
+
+    // Longer player names are left out of the tag rather than bloating the footer
+    private static final int MAX_PLAYER_BYTES = 64;
+
+    private final Kind kind;
+    private final String playerName;
+
+    private EmbedEnvelope(Kind kind, String playerName) {
+        this.kind = kind;
+        this.playerName = playerName;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * The player the embed is about, or null if not tagged.
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Returns the footer text with a tag for the given kind and player
+     * (which may be null) appended.
+     */
+    public static String tag(String footerText, Kind kind, String playerName) {
+        byte[] player = playerName == null ? new byte[0] : playerName.getBytes(StandardCharsets.UTF_8);
+        if (player.length > MAX_PLAYER_BYTES) {
+            player = new byte[0];
+        }
+        StringBuilder out = new StringBuilder((footerText == null ? 0 : footerText.length()) + 9 + player.length * 4);
+        if (footerText != null) {
+            out.append(footerText);
+        }
+        out.append(MARKER);
+        appendByte(out, '0' + VERSION);
+        appendByte(out, kind.code);
+        for (byte b : player) {
+            appendByte(out, b);
+        }
+        return out.toString();
+    }
+
+    private static void appendByte(StringBuilder out, int b) {
+        out.append(DIGITS[(b >> 6) & 3])
+                .append(DIGITS[(b >> 4) & 3])
+                .append(DIGITS[(b >> 2) & 3])
+                .append(DIGITS[b & 3]);
+    }
+
+    /**
+     * Reads the tag from footer text. Returns null if there is none, or it is
+     * damaged or from an unknown version.
+     */
+    public static EmbedEnvelope decode(String footerText) {
+        if (footerText == null) {
+            return null;
+        }
+        int start = footerText.lastIndexOf(MARKER);
+        if (start < 0) {
+            return null;
+        }
+        int length = footerText.length() - start - 1;
+        if (length < 8 || length % 4 != 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length / 4];
+        for (int i = 0; i < bytes.length; i++) {
+            int value = 0;
+            for (int j = 0; j < 4; j++) {
+                int digit = digit(footerText.charAt(start + 1 + i * 4 + j));
+                if (digit < 0) {
+                    return null;
+                }
+                value = (value << 2) | digit;
+            }
+            bytes[i] = (byte) value;
+        }
+        if (bytes[0] != '0' + VERSION) {
+            return null;
+        }
+        Kind kind = Kind.fromCode((char) bytes[1]);
+        if (kind == null) {
+            return null;
+        }
+        String player = bytes.length > 2 ? new String(bytes, 2, bytes.length - 2, StandardCharsets.UTF_8) : null;
+        return new EmbedEnvelope(kind, player);
+    }
+
+    /**
+     * Returns the footer text without its tag, for display.
+     */
+    public static String strip(String footerText) {
+        if (footerText == null) {
+            return null;
+        }
+        int start = footerText.lastIndexOf(MARKER);
+        return start < 0 ? footerText : footerText.substring(0, start);
+    }
+
+    private static int digit(char c) {
+        for (int i = 0; i < DIGITS.length; i++) {
+            if (DIGITS[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,156 @@
+package network.vonix.viscord.discord;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.game.ClientboundSystemChatPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraft.world.entity.player.ChatVisiblity;
+import network.vonix.viscord.Viscord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue of Discord messages waiting to be shown to players. Any thread may
+ * add to it; the server thread drains it once per tick, within a time budget.
+ *
+ * Consecutive messages for the same audience are delivered as a batch to the
+ * audience's recipients from the {@link AudienceIndex}. Each message's packet
+ * is built once and the same instance is sent to every recipient.
+ */
+public class InboundDelivery {
+
+    /**
+     * Who a message is for; each audience has its own player opt-out.
+     */
+    public enum Audience {
+        /** Chat relayed from Discord and other servers. */
+        CHAT,
+        /** Join, leave, death and advancement messages. */
+        EVENTS,
+        /** Startup, shutdown and player list messages. */
+        SERVER_SYSTEM
+    }
+
+    // Upper bound on messages delivered together in one pass over the players
+    private static final int MAX_BATCH = 16;
+
+    private final AudienceIndex audienceIndex;
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile int capacity = 1000;
+    private volatile long budgetNanos = 2_000_000;
+
+    public InboundDelivery(AudienceIndex audienceIndex) {
+        this.audienceIndex = audienceIndex;
+    }
+
+    /**
+     * Sets the queue capacity and the time the server thread may spend
+     * delivering per tick, in microseconds.
+     */
+    public void configure(int capacity, int budgetMicros) {
+        this.capacity = Math.max(1, capacity);
+        this.budgetNanos = Math.max(100, budgetMicros) * 1000L;
+    }
+
+    /**
+     * Queues a message. Returns false and drops it if the queue is full.
+     */
+    public boolean offer(Audience audience, Component message) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            long dropped = droppedCount.incrementAndGet();
+            if (dropped == 1 || dropped % 100 == 0) {
+                Viscord.LOGGER.warn("[Discord] Inbound message queue full, dropped {} messages so far", dropped);
+            }
+            return false;
+        }
+        queue.add(new Pending(audience, message));
+        return true;
+    }
+
+    /**
+     * Delivers queued messages until the queue is empty or the tick budget is
+     * used up. Server thread only. At least one batch is delivered per call.
+     */
+    public void drain(MinecraftServer server) {
+        if (queue.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + budgetNanos;
+        List<Component> batch = new ArrayList<>(MAX_BATCH);
+
+        do {
+            Pending first = queue.poll();
+            if (first == null) {
+                break;
+            }
+            Audience audience = first.audience;
+            batch.add(first.message);
+            // Extend the batch with following messages for the same audience
+            Pending next;
+            while (batch.size() < MAX_BATCH && (next = queue.peek()) != null && next.audience == audience) {
+                queue.poll();
+                batch.add(next.message);
+            }
+            size.addAndGet(-batch.size());
+
+            deliver(server, audience, batch);
+            batch.clear();
+        } while (System.nanoTime() < deadline);
+    }
+
+    private void deliver(MinecraftServer server, Audience audience, List<Component> batch) {
+        List<ClientboundSystemChatPacket> packets = new ArrayList<>(batch.size());
+        for (Component message : batch) {
+            packets.add(new ClientboundSystemChatPacket(message, false));
+        }
+        broadcast(packets, audienceIndex.recipients(server, audience));
+    }
+
+    /**
+     * Sends the given system chat packets to every recipient that accepts them,
+     * reusing the packet instances across connections.
+     */
+    public static void broadcast(List<ClientboundSystemChatPacket> packets,
+            List<ServerGamePacketListenerImpl> recipients) {
+        for (ServerGamePacketListenerImpl connection : recipients) {
+            // Same check as ServerPlayer.sendSystemMessage for non-overlay messages
+            if (connection.player.getChatVisibility() == ChatVisiblity.HIDDEN) {
+                continue;
+            }
+            for (ClientboundSystemChatPacket packet : packets) {
+                connection.send(packet);
+            }
+        }
+    }
+
+    public int getQueuedCount() {
+        return size.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public void clear() {
+        queue.clear();
+        size.set(0);
+    }
+
+    private static final class Pending {
+        final Audience audience;
+        final Component message;
+
+        Pending(Audience audience, Component message) {
+            this.audience = audience;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package network.vonix.viscord.discord;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import network.vonix.viscord.Viscord;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Append-only journal of outbound Discord payloads, split into segment files.
+ * Payloads are written here before they are sent and acknowledged once Discord
+ * accepted them (or refused them for good). Segments that only hold acknowledged
+ * payloads are deleted, and whatever is left is replayed in order after an
+ * outage or restart. Delivery is at-least-once.
+ *
+ * Each segment holds one JSON record per line: {"seq", "type", "lane", "key", "payload"}.
+ */
+public class OutboxJournal {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String ACK_FILE = "ack";
+
+    // Acknowledgements are persisted at most this often
+    private static final long ACK_SAVE_DELAY_MS = 1000;
+
+    /**
+     * What a journaled payload is sent through.
+     */
+    public enum Type {
+        /** Serialized webhook payload; the key is the sender. */
+        WEBHOOK,
+        /** Bot embed; the key is the channel ID. */
+        EMBED
+    }
+
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private final int maxSegments;
+
+    // Oldest first; the last one is the segment being written
+    private final List<Segment> segments = new ArrayList<>();
+    private OutputStream out;
+
+    private long nextSeq = 1;
+    private long ackedThrough = 0;
+    private final TreeSet<Long> ackedAhead = new TreeSet<>();
+    private boolean ackSaveScheduled = false;
+    private boolean closed = false;
+
+    public OutboxJournal(Path directory, long segmentMaxBytes, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentMaxBytes = Math.max(4096, segmentMaxBytes);
+        this.maxSegments = Math.max(2, maxSegments);
+
+        Files.createDirectories(directory);
+        this.ackedThrough = loadAck();
+        loadSegments();
+        compact();
+    }
+
+    /**
+     * Appends a payload and returns its sequence number, or -1 if it could not
+     * be written (the payload is then only sent, not journaled).
+     */
+    public synchronized long append(Type type, OutboundScheduler.Lane lane, String key, String payload) {
+        if (closed) {
+            return -1;
+        }
+
+        long seq = nextSeq++;
+        JsonObject record = new JsonObject();
+        record.addProperty("seq", seq);
+        record.addProperty("type", type.name().toLowerCase(Locale.ROOT));
+        record.addProperty("lane", lane.name().toLowerCase(Locale.ROOT));
+        record.addProperty("key", key);
+        record.addProperty("payload", payload);
+        byte[] line = (record.toString() + "\n").getBytes(StandardCharsets.UTF_8);
+
+        try {
+            Segment current = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (out == null || current == null || current.size + line.length > segmentMaxBytes) {
+                current = rotate(seq);
+            }
+            out.write(line);
+            out.flush();
+            current.size += line.length;
+            current.lastSeq = seq;
+            return seq;
+        } catch (IOException e) {
+            Viscord.LOGGER.error("[Discord] Failed to write to the outbox", e);
+            // Nothing on disk for this sequence number; don't let it hold back the watermark
+            ack(seq);
+            return -1;
+        }
+    }
+
+    /**
+     * Marks a payload as done. Segments made up only of acknowledged payloads are deleted.
+     */
+    public synchronized void ack(long seq) {
+        if (seq <= ackedThrough) {
+            return;
+        }
+        ackedAhead.add(seq);
+        while (!ackedAhead.isEmpty() && ackedAhead.first() == ackedThrough + 1) {
+            ackedAhead.pollFirst();
+            ackedThrough++;
+        }
+        compact();
+        scheduleAckSave();
+    }
+
+    /**
+     * Number of payloads that have not been acknowledged yet.
+     */
+    public synchronized long getBacklog() {
+        return (nextSeq - 1) - ackedThrough - ackedAhead.size();
+    }
+
+    /**
+     * A read position for replaying the journal, starting at the oldest segment.
+     */
+    public synchronized Cursor newCursor() {
+        Cursor cursor = new Cursor();
+        cursor.segmentSeq = segments.isEmpty() ? nextSeq : segments.get(0).firstSeq;
+        return cursor;
+    }
+
+    /**
+     * Reads up to {@code max} unacknowledged payloads of the given type from the
+     * cursor onward. Returns an empty list once the cursor has caught up with the writer.
+     */
+    public synchronized List<Entry> read(Cursor cursor, Type type, int max) {
+        List<Entry> entries = new ArrayList<>();
+        while (entries.size() < max) {
+            Segment segment = segmentAtOrAfter(cursor.segmentSeq);
+            if (segment == null) {
+                break;
+            }
+            if (segment.firstSeq != cursor.segmentSeq) {
+                // The cursor's segment was compacted away
+                cursor.segmentSeq = segment.firstSeq;
+                cursor.offset = 0;
+            }
+            if (cursor.offset >= segment.size) {
+                Segment next = segmentAtOrAfter(segment.firstSeq + 1);
+                if (next == null) {
+                    break;
+                }
+                cursor.segmentSeq = next.firstSeq;
+                cursor.offset = 0;
+                continue;
+            }
+            try {
+                readSegment(segment, cursor, type, max, entries);
+            } catch (NoSuchFileException e) {
+                cursor.offset = segment.size;
+            } catch (IOException e) {
+                Viscord.LOGGER.error("[Discord] Failed to read outbox segment {}", segment.path.getFileName(), e);
+                cursor.offset = segment.size;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Flushes the acknowledgement watermark and closes the current segment.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closeWriter();
+        saveAck();
+    }
+
+    // =================================================================================
+    // Segments
+    // =================================================================================
+
+    private void readSegment(Segment segment, Cursor cursor, Type type, int max, List<Entry> entries)
+            throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(segment.path))) {
+            in.skipNBytes(cursor.offset);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            while (entries.size() < max && cursor.offset < segment.size) {
+                line.reset();
+                int b;
+                while ((b = in.read()) != -1 && b != '\n') {
+                    line.write(b);
+                }
+                cursor.offset += line.size() + (b == '\n' ? 1 : 0);
+                if (b == -1 && line.size() == 0) {
+                    cursor.offset = segment.size;
+                    break;
+                }
+
+                Entry entry = parse(line.toString(StandardCharsets.UTF_8));
+                if (entry != null && entry.type == type && entry.seq > ackedThrough
+                        && !ackedAhead.contains(entry.seq)) {
+                    entries.add(entry);
+                }
+            }
+        }
+    }
+
+    private static Entry parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+            Type type = Type.valueOf(record.get("type").getAsString().toUpperCase(Locale.ROOT));
+            OutboundScheduler.Lane lane = OutboundScheduler.Lane.fromName(
+                    record.has("lane") ? record.get("lane").getAsString() : null,
+                    type == Type.WEBHOOK ? OutboundScheduler.Lane.CHAT : OutboundScheduler.Lane.EVENTS);
+            return new Entry(
+                    record.get("seq").getAsLong(),
+                    type,
+                    lane,
+                    record.get("key").getAsString(),
+                    record.get("payload").getAsString());
+        } catch (Exception e) {
+            // Torn write from a crash, or a hand-edited file
+            Viscord.LOGGER.warn("[Discord] Skipping unreadable outbox record");
+            return null;
+        }
+    }
+
+    private Segment segmentAtOrAfter(long seq) {
+        for (Segment segment : segments) {
+            if (segment.firstSeq >= seq) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    private Segment rotate(long firstSeq) throws IOException {
+        closeWriter();
+
+        if (segments.size() >= maxSegments) {
+            Segment oldest = segments.remove(0);
+            long lost = 0;
+            for (long seq = Math.max(oldest.firstSeq, ackedThrough + 1); seq <= oldest.lastSeq; seq++) {
+                if (!ackedAhead.contains(seq)) {
+                    lost++;
+                }
+            }
+            if (lost > 0) {
+                Viscord.LOGGER.warn("[Discord] Outbox is full, discarding {} undelivered messages", lost);
+            }
+            ackedThrough = Math.max(ackedThrough, oldest.lastSeq);
+            ackedAhead.headSet(ackedThrough, true).clear();
+            delete(oldest);
+            scheduleAckSave();
+        }
+
+        Segment segment = new Segment(directory.resolve(segmentName(firstSeq)), firstSeq);
+        segments.add(segment);
+        out = Files.newOutputStream(segment.path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return segment;
+    }
+
+    /**
+     * Deletes closed segments whose payloads have all been acknowledged.
+     */
+    private void compact() {
+        while (segments.size() > 1 && segments.get(0).lastSeq <= ackedThrough) {
+            delete(segments.remove(0));
+        }
+        // The current segment can go too once it is fully acknowledged; the next append starts a new one
+        if (segments.size() == 1 && segments.get(0).lastSeq <= ackedThrough && segments.get(0).size > 0) {
+            closeWriter();
+            delete(segments.remove(0));
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            Viscord.LOGGER.warn("[Discord] Failed to delete outbox segment {}", segment.path.getFileName(), e);
+        }
+    }
+
+    private void closeWriter() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                Viscord.LOGGER.warn("[Discord] Failed to close outbox segment", e);
+            }
+            out = null;
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        List<Segment> found = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    long firstSeq = Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    Segment segment = new Segment(path, firstSeq);
+                    segment.size = Files.size(path);
+                    if (segment.size == 0) {
+                        delete(segment);
+                        continue;
+                    }
+                    found.add(segment);
+                } catch (NumberFormatException e) {
+                    Viscord.LOGGER.warn("[Discord] Ignoring unexpected file in outbox: {}", name);
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong(segment -> segment.firstSeq));
+
+        for (int i = 0; i < found.size(); i++) {
+            Segment segment = found.get(i);
+            if (i + 1 < found.size()) {
+                segment.lastSeq = found.get(i + 1).firstSeq - 1;
+            } else {
+                segment.lastSeq = scanLastSeq(segment);
+            }
+        }
+        segments.addAll(found);
+
+        long lastSeq = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).lastSeq;
+        nextSeq = Math.max(lastSeq, ackedThrough) + 1;
+
+        long backlog = getBacklog();
+        if (backlog > 0) {
+            Viscord.LOGGER.info("[Discord] Outbox has {} undelivered messages from a previous run", backlog);
+        }
+    }
+
+    private long scanLastSeq(Segment segment) {
+        long lastSeq = segment.firstSeq - 1;
+        try {
+            for (String line : Files.readAllLines(segment.path, StandardCharsets.UTF_8)) {
+                Entry entry = parse(line);
+                if (entry != null) {
+                    lastSeq = Math.max(lastSeq, entry.seq);
+                }
+            }
+        } catch (IOException e) {
+            Viscord.LOGGER.warn("[Discord] Failed to scan outbox segment {}", segment.path.getFileName(), e);
+        }
+        return lastSeq;
+    }
+
+    private static String segmentName(long firstSeq) {
+        return String.format(Locale.ROOT, "%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX);
+    }
+
+    // =================================================================================
+    // Acknowledgement watermark
+    // =================================================================================
+
+    private long loadAck() {
+        Path file = directory.resolve(ACK_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(file).trim());
+        } catch (IOException | NumberFormatException e) {
+            Viscord.LOGGER.warn("[Discord] Outbox acknowledgement file is unreadable, replaying everything");
+            return 0;
+        }
+    }
+
+    private void scheduleAckSave() {
+        if (closed || ackSaveScheduled) {
+            return;
+        }
+        ackSaveScheduled = true;
+        Viscord.schedule(() -> {
+            synchronized (this) {
+                ackSaveScheduled = false;
+                if (!closed) {
+                    saveAck();
+                }
+            }
+        }, ACK_SAVE_DELAY_MS);
+    }
+
+    private void saveAck() {
+        Path file = directory.resolve(ACK_FILE);
+        Path temp = directory.resolve(ACK_FILE + ".tmp");
+        try {
+            Files.writeString(temp, Long.toString(ackedThrough));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Viscord.LOGGER.warn("[Discord] Failed to save outbox acknowledgements", e);
+        }
+    }
+
+    /**
+     * Read position within the journal.
+     */
+    public static final class Cursor {
+        long segmentSeq;
+        long offset;
+    }
+
+    /**
+     * A journaled payload.
+     */
+    public static final class Entry {
+        final long seq;
+        final Type type;
+        final OutboundScheduler.Lane lane;
+        final String key;
+        final String payload;
+
+        Entry(long seq, Type type, OutboundScheduler.Lane lane, String key, String payload) {
+            this.seq = seq;
+            this.type = type;
+            this.lane = lane;
+            this.key = key;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * One segment file. {@code lastSeq} is {@code firstSeq - 1} while it is empty.
+     */
+    private static final class Segment {
+        final Path path;
+        final long firstSeq;
+        long lastSeq;
+        long size;
+
+        Segment(Path path, long firstSeq) {
+            this.path = path;
+            this.firstSeq = firstSeq;
+            this.lastSeq = firstSeq - 1;
+        }
+    }
+}
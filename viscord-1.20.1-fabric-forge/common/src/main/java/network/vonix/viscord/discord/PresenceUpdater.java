@@ -0,0 +1,92 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Sends bot presence updates on the scheduler instead of a sleeping thread per
+ * request. Requests made while an update is pending share it, the status is
+ * rendered when the update fires, unchanged text is not resent, and no more
+ * than {@link #MAX_UPDATES} updates go out per {@link #RATE_WINDOW_MS}.
+ */
+public class PresenceUpdater {
+
+    // Discord allows only a handful of presence updates per minute
+    private static final int MAX_UPDATES = 5;
+    private static final long RATE_WINDOW_MS = 60000;
+
+    private final Supplier<String> renderer;
+    private final Consumer<String> sender;
+
+    // Guarded by this
+    private ScheduledFuture<?> pending;
+    private String lastSent;
+    private final ArrayDeque<Long> sentTimes = new ArrayDeque<>();
+
+    /**
+     * @param renderer builds the current status text, or returns null to send nothing
+     * @param sender   pushes the text to Discord; called on the async pool
+     */
+    public PresenceUpdater(Supplier<String> renderer, Consumer<String> sender) {
+        this.renderer = renderer;
+        this.sender = sender;
+    }
+
+    /**
+     * Asks for an update within {@code delayMs}, or later if the rate limit is used up.
+     */
+    public synchronized void request(long delayMs) {
+        if (pending != null) {
+            return;
+        }
+        pending = Viscord.schedule(this::run, Math.max(0, delayMs));
+    }
+
+    /**
+     * Forgets the last sent text, so the next update is sent even if unchanged
+     * (e.g. after the bot reconnects).
+     */
+    public synchronized void reset() {
+        lastSent = null;
+    }
+
+    public synchronized void cancel() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private void run() {
+        String status;
+        synchronized (this) {
+            pending = null;
+            try {
+                status = renderer.get();
+            } catch (Exception e) {
+                Viscord.LOGGER.error("[Discord] Failed to render bot status", e);
+                return;
+            }
+            if (status == null || status.equals(lastSent)) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            while (!sentTimes.isEmpty() && sentTimes.peekFirst() <= now - RATE_WINDOW_MS) {
+                sentTimes.pollFirst();
+            }
+            if (sentTimes.size() >= MAX_UPDATES) {
+                // Try again when the oldest update leaves the window
+                pending = Viscord.schedule(this::run, sentTimes.peekFirst() + RATE_WINDOW_MS - now);
+                return;
+            }
+            sentTimes.addLast(now);
+            lastSent = status;
+        }
+        Viscord.executeAsync(() -> sender.accept(status));
+    }
+}
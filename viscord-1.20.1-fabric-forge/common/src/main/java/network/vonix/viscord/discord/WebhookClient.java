@@ -1,23 +1,74 @@
 package network.vonix.viscord.discord;
 
-import com.google.gson.JsonObject;
 import network.vonix.viscord.Viscord;
 import okhttp3.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Handles outgoing messages to Discord via Webhooks.
  * Used for chat messages to preserve player avatars and names.
+ *
+ * Several webhook URLs for the same channel can be configured as a pool; each
+ * one is its own Discord rate-limit bucket. Senders are assigned to a webhook
+ * stickily so one player's messages stay in order on one webhook, and are
+ * moved elsewhere when their webhook is rate limited or removed.
+ *
+ * Every webhook has its own bounded queue, drained with at most one request in
+ * flight so payloads stay in order. Sends are paced by the configured rate limit
+ * delay and follow Discord's rate-limit buckets (retrying 429s instead of
+ * dropping them). Requests go out through OkHttp's asynchronous dispatcher, so
+ * no thread waits on a queue, a bucket or a slow response.
  */
 public class WebhookClient {
 
+    private static final MediaType JSON = MediaType.parse("application/json");
+    static final int MAX_RATE_LIMIT_RETRIES = 5;
+
+    // Idle sticky assignments are pruned once the map grows past this
+    private static final int MAX_IDLE_ASSIGNMENTS = 512;
+
+    private final Dispatcher dispatcher;
     private final OkHttpClient httpClient;
-    private String webhookUrl;
+    private final DiscordRateLimiter rateLimiter = new DiscordRateLimiter();
+
+    private volatile List<String> webhookUrls = Collections.emptyList();
+    private volatile List<WebhookEndpoint> endpoints = Collections.emptyList();
+
+    // Sticky sender -> endpoint assignments, guarded by itself
+    private final Map<String, Assignment> assignments = new HashMap<>();
+    private int nextEndpoint = 0;
+
+    // Queue settings applied to every endpoint
+    private int queueSize = 100;
+    private OutboundQueue.OverflowPolicy overflowPolicy = OutboundQueue.OverflowPolicy.DROP_OLDEST;
+    private long blockTimeoutMs = 0;
+    private volatile long rateLimitDelayMs = 1000;
+    private volatile boolean running = false;
 
     public WebhookClient() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = new Dispatcher(new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "Viscord-HTTP-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }));
         this.httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
                 .connectTimeout(5, TimeUnit.SECONDS)
                 .writeTimeout(5, TimeUnit.SECONDS)
                 .readTimeout(5, TimeUnit.SECONDS)
@@ -26,61 +77,457 @@ public class WebhookClient {
 
     public WebhookClient(String webhookUrl) {
         this();
-        this.webhookUrl = webhookUrl;
+        updateUrl(webhookUrl);
     }
 
     public void updateUrl(String webhookUrl) {
-        this.webhookUrl = webhookUrl;
+        updateUrls(Collections.singletonList(webhookUrl));
+    }
+
+    /**
+     * Replaces the webhook pool. Blank and placeholder URLs are ignored.
+     * Messages still queued on the old pool are carried over.
+     */
+    public synchronized void updateUrls(List<String> urls) {
+        Set<String> valid = new LinkedHashSet<>();
+        if (urls != null) {
+            for (String url : urls) {
+                if (url != null && !url.isBlank() && !url.contains("YOUR_WEBHOOK_URL")) {
+                    valid.add(url.trim());
+                }
+            }
+        }
+        this.webhookUrls = new ArrayList<>(valid);
+        if (running) {
+            rebuildEndpoints();
+        }
+    }
+
+    /**
+     * Bounds the number of concurrent HTTP requests. Requests beyond these limits
+     * wait inside OkHttp's dispatcher without holding a thread.
+     */
+    public void configureDispatcher(int maxRequests, int maxRequestsPerHost) {
+        dispatcher.setMaxRequests(Math.max(1, maxRequests));
+        dispatcher.setMaxRequestsPerHost(Math.max(1, maxRequestsPerHost));
+    }
+
+    /**
+     * Configures the per-webhook outbound queues.
+     * Messages still queued from a previous configuration are carried over.
+     */
+    public synchronized void configureQueue(int queueSize, long rateLimitDelayMs,
+            OutboundQueue.OverflowPolicy overflowPolicy, long blockTimeoutMs) {
+        this.queueSize = queueSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.rateLimitDelayMs = Math.max(0, rateLimitDelayMs);
+        this.running = true;
+        rebuildEndpoints();
+    }
+
+    /**
+     * Queues a chat message. The returned future completes once Discord accepted
+     * the message, or exceptionally with a {@link DeliveryException} if it was
+     * dropped or rejected.
+     */
+    public CompletableFuture<Void> sendMessage(String username, String avatarUrl, String content) {
+        return sendPayload(username, messagePayload(username, avatarUrl, content));
+    }
+
+    public CompletableFuture<Void> sendEmbed(String username, String avatarUrl, OutgoingEmbed embed) {
+        return sendPayload(username, embedPayload(username, avatarUrl, embed));
+    }
+
+    /**
+     * Queues an already serialized webhook payload (UTF-8 JSON) for the given sender.
+     */
+    public CompletableFuture<Void> sendPayload(String senderKey, byte[] json) {
+        if (endpoints.isEmpty()) {
+            return CompletableFuture.failedFuture(new DeliveryException("No webhook configured", false));
+        }
+        return enqueue(new PendingPayload(senderKey, json));
+    }
+
+    static byte[] messagePayload(String username, String avatarUrl, String content) {
+        return PayloadEncoder.message(username, avatarUrl, content);
     }
 
-    public void sendMessage(String username, String avatarUrl, String content) {
-        if (webhookUrl == null || webhookUrl.isEmpty() || webhookUrl.contains("YOUR_WEBHOOK_URL")) return;
+    static byte[] embedPayload(String username, String avatarUrl, OutgoingEmbed embed) {
+        return PayloadEncoder.embed(username, avatarUrl, embed);
+    }
+
+    private CompletableFuture<Void> enqueue(PendingPayload pending) {
+        WebhookEndpoint endpoint = acquire(pending.senderKey);
+        if (endpoint == null) {
+            Viscord.LOGGER.warn("[Discord] No usable webhook left in the pool, dropping message");
+            pending.result.completeExceptionally(new DeliveryException("No usable webhook", false));
+            return pending.result;
+        }
+        if (!endpoint.getQueue().offer(pending)) {
+            release(pending.senderKey);
+            Viscord.LOGGER.warn("[Discord] Webhook #{} queue full ({} queued), dropping message",
+                    endpoint.getIndex(), endpoint.getQueuedCount());
+            pending.result.completeExceptionally(new DeliveryException("Webhook queue full", false));
+            return pending.result;
+        }
+        pump(endpoint);
+        return pending.result;
+    }
+
+    // =================================================================================
+    // Pool management
+    // =================================================================================
+
+    /**
+     * Picks the endpoint for a sender and counts the message against the
+     * sender's assignment. A sender keeps its endpoint while it has messages
+     * pending there; once idle it may be moved off a rate-limited endpoint.
+     */
+    private WebhookEndpoint acquire(String senderKey) {
+        synchronized (assignments) {
+            List<WebhookEndpoint> live = liveEndpoints();
+            if (live.isEmpty()) {
+                return null;
+            }
 
-        JsonObject json = new JsonObject();
-        json.addProperty("username", username);
-        json.addProperty("avatar_url", avatarUrl);
-        json.addProperty("content", content);
+            Assignment assignment = assignments.get(senderKey);
+            if (assignment == null || assignment.endpoint.isDead() || assignment.endpoint.isRetired()) {
+                if (assignment == null && assignments.size() >= MAX_IDLE_ASSIGNMENTS) {
+                    pruneIdleAssignments();
+                }
+                int pending = assignment == null ? 0 : assignment.pending;
+                assignment = new Assignment(pickEndpoint(live));
+                assignment.pending = pending;
+                assignments.put(senderKey, assignment);
+            } else if (assignment.pending == 0
+                    && assignment.endpoint.getState() == WebhookEndpoint.State.RATE_LIMITED) {
+                WebhookEndpoint better = pickEndpoint(live);
+                if (better.getState() == WebhookEndpoint.State.HEALTHY) {
+                    assignment.endpoint = better;
+                }
+            }
+
+            assignment.pending++;
+            return assignment.endpoint;
+        }
+    }
 
-        sendJson(json);
+    private void release(String senderKey) {
+        synchronized (assignments) {
+            Assignment assignment = assignments.get(senderKey);
+            if (assignment != null && assignment.pending > 0) {
+                assignment.pending--;
+            }
+        }
+    }
+
+    /**
+     * Least-loaded healthy endpoint, scanning from a rotating start so
+     * ties are spread round-robin.
+     */
+    private WebhookEndpoint pickEndpoint(List<WebhookEndpoint> live) {
+        int start = Math.floorMod(nextEndpoint++, live.size());
+        WebhookEndpoint best = null;
+        boolean bestLimited = true;
+        for (int i = 0; i < live.size(); i++) {
+            WebhookEndpoint candidate = live.get((start + i) % live.size());
+            boolean limited = candidate.getState() == WebhookEndpoint.State.RATE_LIMITED;
+            if (best == null
+                    || (bestLimited && !limited)
+                    || (bestLimited == limited && candidate.getQueuedCount() < best.getQueuedCount())) {
+                best = candidate;
+                bestLimited = limited;
+            }
+        }
+        return best;
+    }
+
+    private List<WebhookEndpoint> liveEndpoints() {
+        List<WebhookEndpoint> live = new ArrayList<>();
+        for (WebhookEndpoint endpoint : endpoints) {
+            if (!endpoint.isDead()) {
+                live.add(endpoint);
+            }
+        }
+        return live;
+    }
+
+    private void pruneIdleAssignments() {
+        Iterator<Assignment> it = assignments.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().pending == 0) {
+                it.remove();
+            }
+        }
     }
 
-    public void sendEmbed(String username, String avatarUrl, JsonObject embed) {
-        if (webhookUrl == null || webhookUrl.isEmpty()) return;
+    private synchronized void rebuildEndpoints() {
+        // Collect what is still queued on the old pool, in order
+        List<PendingPayload> carried = new ArrayList<>();
+        for (WebhookEndpoint old : endpoints) {
+            old.retire();
+            carried.addAll(old.getQueue().drainAll());
+        }
+        synchronized (assignments) {
+            assignments.clear();
+        }
 
-        JsonObject json = new JsonObject();
-        json.addProperty("username", username);
-        if (avatarUrl != null) json.addProperty("avatar_url", avatarUrl);
+        List<WebhookEndpoint> rebuilt = new ArrayList<>();
+        List<String> urls = webhookUrls;
+        for (int i = 0; i < urls.size(); i++) {
+            OutboundQueue<PendingPayload> queue = new OutboundQueue<>(queueSize, overflowPolicy, blockTimeoutMs);
+            queue.setEvictionListener(evicted -> {
+                release(evicted.senderKey);
+                evicted.result.completeExceptionally(new DeliveryException("Dropped from full webhook queue", false));
+            });
+            rebuilt.add(new WebhookEndpoint(i + 1, urls.get(i), queue, rateLimiter));
+        }
+        this.endpoints = Collections.unmodifiableList(rebuilt);
 
-        com.google.gson.JsonArray embeds = new com.google.gson.JsonArray();
-        embeds.add(embed);
-        json.add("embeds", embeds);
+        if (rebuilt.size() > 1) {
+            Viscord.LOGGER.info("[Discord] Webhook pool ready with {} webhooks", rebuilt.size());
+        }
 
-        sendJson(json);
+        for (PendingPayload pending : carried) {
+            enqueue(pending);
+        }
     }
 
-    private void sendJson(JsonObject json) {
-        Viscord.executeAsync(() -> {
-            RequestBody body = RequestBody.create(json.toString(), MediaType.parse("application/json"));
-            Request request = new Request.Builder()
-                    .url(webhookUrl)
+    // =================================================================================
+    // Delivery
+    // =================================================================================
+
+    /**
+     * Starts sending the next payload of an endpoint if it is not already busy.
+     * Called after every enqueue and after every completed send, so each endpoint
+     * drains one payload at a time without a dedicated thread.
+     */
+    private void pump(WebhookEndpoint endpoint) {
+        while (running && !endpoint.isRetired() && !endpoint.isDead()) {
+            if (!endpoint.tryBeginSend()) {
+                return;
+            }
+            PendingPayload pending = endpoint.getQueue().poll();
+            if (pending != null) {
+                attempt(endpoint, pending, 1);
+                return;
+            }
+            endpoint.endSend();
+            // Re-check in case something was queued while the claim was held
+            if (endpoint.getQueuedCount() == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends a payload once its rate-limit bucket allows it.
+     */
+    private void attempt(WebhookEndpoint endpoint, PendingPayload pending, int attempt) {
+        long wait = rateLimiter.getDelayMillis(endpoint.getUrl());
+        if (wait > 0) {
+            if (Viscord.schedule(() -> post(endpoint, pending, attempt), wait) == null) {
+                finish(endpoint, pending, new DeliveryException("Scheduler stopped", true));
+            }
+        } else {
+            post(endpoint, pending, attempt);
+        }
+    }
+
+    /**
+     * Posts a payload asynchronously and handles the outcome in the callback:
+     * 429s are retried after the advised delay, 404/401 remove the webhook from
+     * the pool and re-route its payloads, anything else completes the payload.
+     */
+    private void post(WebhookEndpoint endpoint, PendingPayload pending, int attempt) {
+        String url = endpoint.getUrl();
+        RequestBody body = RequestBody.create(pending.json, JSON);
+        Request request;
+        try {
+            request = new Request.Builder()
+                    .url(url)
                     .post(body)
                     .build();
+        } catch (IllegalArgumentException e) {
+            endpoint.markDead(-1);
+            Viscord.LOGGER.error("Invalid webhook URL in pool slot #{}: {}", endpoint.getIndex(), e.getMessage());
+            reroute(endpoint, pending);
+            endpoint.endSend();
+            return;
+        }
 
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    Viscord.LOGGER.warn("Failed to send webhook message. Code: {}", response.code());
-                    if (response.body() != null) {
-                        Viscord.LOGGER.debug("Response: {}", response.body().string());
+        rateLimiter.reserve(url);
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                endpoint.recordFailed(-1);
+                Viscord.LOGGER.error("Error sending webhook payload", e);
+                finish(endpoint, pending, new DeliveryException("Webhook request failed", e, true));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    long retryAfter = rateLimiter.onResponse(url, response.code(), response.headers());
+                    if (retryAfter >= 0) {
+                        endpoint.recordRateLimited();
+                        if (attempt < MAX_RATE_LIMIT_RETRIES && running) {
+                            Viscord.LOGGER.debug("[Discord] Webhook #{} rate limited, retrying in {} ms (attempt {}/{})",
+                                    endpoint.getIndex(), retryAfter, attempt, MAX_RATE_LIMIT_RETRIES);
+                            if (Viscord.schedule(() -> attempt(endpoint, pending, attempt + 1), retryAfter) == null) {
+                                finish(endpoint, pending, new DeliveryException("Scheduler stopped", true));
+                            }
+                        } else {
+                            Viscord.LOGGER.warn("[Discord] Dropping webhook message after {} rate-limited attempts",
+                                    MAX_RATE_LIMIT_RETRIES);
+                            finish(endpoint, pending, new DeliveryException("Rate limited", true));
+                        }
+                        return;
+                    }
+
+                    if (response.code() == 404 || response.code() == 401) {
+                        endpoint.markDead(response.code());
+                        reroute(endpoint, pending);
+                        endpoint.endSend();
+                        return;
+                    }
+
+                    if (response.isSuccessful()) {
+                        endpoint.recordSent();
+                        finish(endpoint, pending, null);
+                    } else {
+                        endpoint.recordFailed(response.code());
+                        Viscord.LOGGER.warn("Failed to send webhook message. Code: {}", response.code());
+                        if (response.body() != null) {
+                            Viscord.LOGGER.debug("Response: {}", response.body().string());
+                        }
+                        finish(endpoint, pending, new DeliveryException("HTTP " + response.code(), response.code() >= 500));
                     }
+                } catch (Exception e) {
+                    Viscord.LOGGER.error("Error handling webhook response", e);
+                    finish(endpoint, pending, new DeliveryException("Error handling webhook response", e, false));
                 }
-            } catch (IOException e) {
-                Viscord.LOGGER.error("Error sending webhook payload", e);
             }
         });
     }
 
+    /**
+     * Completes a payload, frees the endpoint and schedules the next send
+     * after the configured spacing.
+     */
+    private void finish(WebhookEndpoint endpoint, PendingPayload pending, DeliveryException error) {
+        release(pending.senderKey);
+        if (error == null) {
+            pending.result.complete(null);
+        } else {
+            pending.result.completeExceptionally(error);
+        }
+
+        endpoint.endSend();
+        if (!running) {
+            return;
+        }
+        if (rateLimitDelayMs <= 0 || Viscord.schedule(() -> pump(endpoint), rateLimitDelayMs) == null) {
+            pump(endpoint);
+        }
+    }
+
+    /**
+     * Moves a failed payload and the rest of a dead endpoint's queue to the remaining webhooks.
+     */
+    private void reroute(WebhookEndpoint endpoint, PendingPayload failed) {
+        List<PendingPayload> orphaned = new ArrayList<>();
+        orphaned.add(failed);
+        orphaned.addAll(endpoint.getQueue().drainAll());
+
+        Viscord.LOGGER.warn("[Discord] Webhook #{} returned {} and was removed from the pool, re-routing {} messages",
+                endpoint.getIndex(), endpoint.getLastErrorCode(), orphaned.size());
+
+        for (PendingPayload pending : orphaned) {
+            release(pending.senderKey);
+            enqueue(pending);
+        }
+    }
+
+    // =================================================================================
+    // Health
+    // =================================================================================
+
+    /**
+     * The webhooks in the pool, for health reporting.
+     */
+    public List<WebhookEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Number of payloads waiting to be sent across the pool.
+     */
+    public int getQueuedCount() {
+        int total = 0;
+        for (WebhookEndpoint endpoint : endpoints) {
+            total += endpoint.getQueuedCount();
+        }
+        return total;
+    }
+
+    /**
+     * Number of payloads dropped because a queue was full.
+     */
+    public long getDroppedCount() {
+        long total = 0;
+        for (WebhookEndpoint endpoint : endpoints) {
+            total += endpoint.getDroppedCount();
+        }
+        return total;
+    }
+
     public void shutdown() {
-        httpClient.dispatcher().executorService().shutdown();
+        int remaining = 0;
+        synchronized (this) {
+            running = false;
+            for (WebhookEndpoint endpoint : endpoints) {
+                endpoint.retire();
+                for (PendingPayload pending : endpoint.getQueue().drainAll()) {
+                    pending.result.completeExceptionally(new DeliveryException("Webhook client shut down", true));
+                    remaining++;
+                }
+            }
+        }
+
+        if (remaining > 0) {
+            Viscord.LOGGER.warn("[Discord] Discarded {} queued webhook messages on shutdown", remaining);
+        }
+
+        // The dispatcher pool is left alive: the client is reused when the server
+        // starts again in the same JVM, and its idle threads exit on their own
         httpClient.connectionPool().evictAll();
     }
+
+    /**
+     * A serialized payload waiting in an outbound queue.
+     */
+    static final class PendingPayload {
+        final String senderKey;
+        final byte[] json;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        PendingPayload(String senderKey, byte[] json) {
+            this.senderKey = senderKey;
+            this.json = json;
+        }
+    }
+
+    /**
+     * Sticky endpoint assignment for one sender.
+     */
+    private static final class Assignment {
+        WebhookEndpoint endpoint;
+        int pending = 0;
+
+        Assignment(WebhookEndpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package network.vonix.viscord.discord;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Encoding and decoding of the footer tag, and what happens to embeds whose
+ * tag did not survive.
+ */
+class EmbedEnvelopeTest {
+
+    // Same encoding as EmbedEnvelope, for building tags it would never write
+    private static final char MARKER = '\u2063';
+    private static final char[] DIGITS = {'\u200B', '\u200C', '\u200D', '\u2060'};
+
+    @Test
+    void roundTripsEveryKind() {
+        for (EmbedEnvelope.Kind kind : EmbedEnvelope.Kind.values()) {
+            String footer = EmbedEnvelope.tag("Viscord · Survival", kind, "Steve");
+
+            EmbedEnvelope envelope = EmbedEnvelope.decode(footer);
+            assertNotNull(envelope, kind.name());
+            assertEquals(kind, envelope.getKind());
+            assertEquals("Steve", envelope.getPlayerName());
+            assertEquals("Viscord · Survival", EmbedEnvelope.strip(footer));
+        }
+    }
+
+    @Test
+    void tagIsInvisible() {
+        String footer = EmbedEnvelope.tag("Viscord", EmbedEnvelope.Kind.DEATH, "Alex");
+
+        assertTrue(footer.startsWith("Viscord"));
+        for (int i = "Viscord".length(); i < footer.length(); i++) {
+            char c = footer.charAt(i);
+            assertTrue(c == MARKER || new String(DIGITS).indexOf(c) >= 0, "visible character at " + i);
+        }
+    }
+
+    @Test
+    void roundTripsWithoutFooterTextOrPlayer() {
+        String footer = EmbedEnvelope.tag(null, EmbedEnvelope.Kind.STATUS, null);
+
+        EmbedEnvelope envelope = EmbedEnvelope.decode(footer);
+        assertEquals(EmbedEnvelope.Kind.STATUS, envelope.getKind());
+        assertNull(envelope.getPlayerName());
+        assertEquals("", EmbedEnvelope.strip(footer));
+    }
+
+    @Test
+    void roundTripsMultiByteNames() {
+        for (String name : new String[] {"Zoë", "日本語の名前", "🐉dragon", "é".repeat(32)}) {
+            EmbedEnvelope envelope = EmbedEnvelope.decode(EmbedEnvelope.tag("x", EmbedEnvelope.Kind.JOIN, name));
+            assertEquals(name, envelope.getPlayerName(), name);
+        }
+    }
+
+    @Test
+    void leavesOutNamesLongerThan64Bytes() {
+        // 64 bytes exactly is kept whole
+        String fits = "日".repeat(21) + "a";
+        assertEquals(64, fits.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(fits, EmbedEnvelope.decode(EmbedEnvelope.tag("x", EmbedEnvelope.Kind.JOIN, fits)).getPlayerName());
+
+        // One byte more, with a three-byte character across the limit: no partial character, no name at all
+        String tooLong = "日".repeat(21) + "ab";
+        EmbedEnvelope envelope = EmbedEnvelope.decode(EmbedEnvelope.tag("x", EmbedEnvelope.Kind.JOIN, tooLong));
+        assertEquals(EmbedEnvelope.Kind.JOIN, envelope.getKind());
+        assertNull(envelope.getPlayerName());
+        String crossing = "a" + "日".repeat(22);
+        assertNull(EmbedEnvelope.decode(EmbedEnvelope.tag("x", EmbedEnvelope.Kind.JOIN, crossing)).getPlayerName());
+    }
+
+    @Test
+    void decodesLastTagOnly() {
+        // A footer quoting another server's tagged footer
+        String quoted = EmbedEnvelope.tag("relay of " + EmbedEnvelope.tag("x", EmbedEnvelope.Kind.DEATH, "Alex"),
+                EmbedEnvelope.Kind.JOIN, "Steve");
+
+        EmbedEnvelope envelope = EmbedEnvelope.decode(quoted);
+        assertEquals(EmbedEnvelope.Kind.JOIN, envelope.getKind());
+        assertEquals("Steve", envelope.getPlayerName());
+    }
+
+    @Test
+    void rejectsDamagedTags() {
+        String tagged = EmbedEnvelope.tag("Viscord", EmbedEnvelope.Kind.JOIN, "Steve");
+
+        assertNull(EmbedEnvelope.decode(null));
+        assertNull(EmbedEnvelope.decode("Viscord · Join"));
+        assertNull(EmbedEnvelope.decode("Viscord" + MARKER));
+        // Cut off mid-byte, and cut off after the version
+        assertNull(EmbedEnvelope.decode(tagged.substring(0, tagged.length() - 1)));
+        assertNull(EmbedEnvelope.decode(raw('1')));
+        // A visible character where a digit should be
+        int digit = tagged.indexOf(MARKER) + 3;
+        assertNull(EmbedEnvelope.decode(tagged.substring(0, digit) + "x" + tagged.substring(digit + 1)));
+        // Unknown version and unknown kind
+        assertNull(EmbedEnvelope.decode(raw('2', 'J')));
+        assertNull(EmbedEnvelope.decode(raw('1', 'Q')));
+    }
+
+    @Test
+    void damagedTagsFallBackToKeywords() {
+        EmbedClassifier classifier = new EmbedClassifier();
+        String tagged = EmbedEnvelope.tag("Viscord · Death", EmbedEnvelope.Kind.DEATH, "Alex");
+        String[] damaged = {
+                tagged.substring(0, tagged.length() - 2),
+                "Viscord · Death" + raw('9', 'D'),
+                "Viscord · Death" + raw('1', 'Q')
+        };
+
+        for (String footer : damaged) {
+            EmbedClassifier.Classification classification = classifier.classify(new FakeEmbed("💀 Player Died", footer));
+            assertEquals(EmbedClassifier.Kind.EVENT, classification.getKind());
+            assertEquals(EventEmbedDetector.EventType.DEATH, classification.getEventType());
+            // The player has to come from the embed content again
+            assertNull(classification.getPlayerName());
+        }
+    }
+
+    /**
+     * A tag holding exactly these bytes.
+     */
+    private static String raw(int... bytes) {
+        StringBuilder out = new StringBuilder().append(MARKER);
+        for (int b : bytes) {
+            out.append(DIGITS[(b >> 6) & 3]).append(DIGITS[(b >> 4) & 3]).append(DIGITS[(b >> 2) & 3]).append(DIGITS[b & 3]);
+        }
+        return out.toString();
+    }
+}
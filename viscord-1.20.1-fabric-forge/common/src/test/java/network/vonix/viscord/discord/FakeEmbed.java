@@ -0,0 +1,124 @@
+package network.vonix.viscord.discord;
+
+import org.javacord.api.entity.message.embed.Embed;
+import org.javacord.api.entity.message.embed.EmbedAuthor;
+import org.javacord.api.entity.message.embed.EmbedField;
+import org.javacord.api.entity.message.embed.EmbedFooter;
+import org.javacord.api.entity.message.embed.EmbedImage;
+import org.javacord.api.entity.message.embed.EmbedProvider;
+import org.javacord.api.entity.message.embed.EmbedThumbnail;
+import org.javacord.api.entity.message.embed.EmbedVideo;
+
+import java.awt.Color;
+import java.net.URL;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An inbound embed with only a title and footer, enough for the classifiers.
+ */
+final class FakeEmbed implements Embed {
+
+    private final String title;
+    private final EmbedFooter footer;
+
+    FakeEmbed(String title, String footerText) {
+        this.title = title;
+        this.footer = footerText == null ? null : new Footer(footerText);
+    }
+
+    @Override
+    public Optional<String> getTitle() {
+        return Optional.ofNullable(title);
+    }
+
+    @Override
+    public Optional<EmbedFooter> getFooter() {
+        return Optional.ofNullable(footer);
+    }
+
+    @Override
+    public String getType() {
+        return "rich";
+    }
+
+    @Override
+    public Optional<String> getDescription() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<URL> getUrl() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Instant> getTimestamp() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Color> getColor() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<EmbedImage> getImage() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<EmbedThumbnail> getThumbnail() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<EmbedVideo> getVideo() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<EmbedProvider> getProvider() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<EmbedAuthor> getAuthor() {
+        return Optional.empty();
+    }
+
+    @Override
+    public List<EmbedField> getFields() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return "embed(title=" + title + ", footer=" + (footer == null ? null : footer.getText().orElse(null)) + ")";
+    }
+
+    private static final class Footer implements EmbedFooter {
+        private final String text;
+
+        Footer(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public Optional<String> getText() {
+            return Optional.of(text);
+        }
+
+        @Override
+        public Optional<URL> getIconUrl() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<URL> getProxyIconUrl() {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package network.vonix.viscord.discord;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Overflow policies of {@link OutboundQueue}, in particular items held under
+ * BLOCK on a queue nobody polls.
+ */
+class OutboundQueueTest {
+
+    @Test
+    void dropOldestEvictsTheHead() {
+        OutboundQueue<String> queue = new OutboundQueue<>(2, OutboundQueue.OverflowPolicy.DROP_OLDEST, 0);
+        List<String> evicted = new CopyOnWriteArrayList<>();
+        queue.setEvictionListener(evicted::add);
+
+        queue.offer("a");
+        queue.offer("b");
+        assertTrue(queue.offer("c"));
+
+        assertEquals(List.of("a"), evicted);
+        assertEquals("b", queue.poll());
+        assertEquals("c", queue.poll());
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    @Test
+    void dropNewestRejectsTheOffer() {
+        OutboundQueue<String> queue = new OutboundQueue<>(1, OutboundQueue.OverflowPolicy.DROP_NEWEST, 0);
+
+        assertTrue(queue.offer("a"));
+        assertFalse(queue.offer("b"));
+
+        assertEquals("a", queue.poll());
+        assertNull(queue.poll());
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    @Test
+    void blockedItemTakesTheFreedSlot() {
+        OutboundQueue<String> queue = new OutboundQueue<>(1, OutboundQueue.OverflowPolicy.BLOCK, 10_000);
+
+        queue.offer("a");
+        assertTrue(queue.offer("b"));
+        assertEquals(2, queue.size());
+
+        assertEquals("a", queue.poll());
+        assertEquals("b", queue.poll());
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    void blockedItemsExpireWithoutFurtherCalls() throws Exception {
+        OutboundQueue<String> queue = new OutboundQueue<>(2, OutboundQueue.OverflowPolicy.BLOCK, 100);
+        List<String> evicted = new CopyOnWriteArrayList<>();
+        queue.setEvictionListener(evicted::add);
+
+        queue.offer("a");
+        queue.offer("b");
+        queue.offer("c");
+        Thread.sleep(50);
+        queue.offer("d");
+
+        // Nothing is offered or polled from here on
+        waitFor(() -> evicted.size() == 2, 2000);
+        assertEquals(List.of("c", "d"), evicted);
+        assertEquals(2, queue.size());
+        assertEquals(2, queue.getDroppedCount());
+    }
+
+    @Test
+    void drainTakesBlockedItemsAndStopsTheirTimer() throws Exception {
+        OutboundQueue<String> queue = new OutboundQueue<>(1, OutboundQueue.OverflowPolicy.BLOCK, 50);
+        List<String> evicted = new CopyOnWriteArrayList<>();
+        queue.setEvictionListener(evicted::add);
+
+        queue.offer("a");
+        queue.offer("b");
+        assertEquals(List.of("a", "b"), queue.drainAll());
+
+        Thread.sleep(200);
+        assertTrue(evicted.isEmpty());
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    private static void waitFor(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
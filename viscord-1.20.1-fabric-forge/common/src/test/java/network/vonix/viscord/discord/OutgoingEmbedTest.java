@@ -0,0 +1,107 @@
+package network.vonix.viscord.discord;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The JSON form the outbox journal stores: whatever {@link EmbedFactory}
+ * builds has to come back from {@link OutgoingEmbed#fromJson} unchanged.
+ */
+class OutgoingEmbedTest {
+
+    @Test
+    void roundTripsFactoryEmbeds() {
+        OutgoingEmbed[] embeds = {
+                EmbedFactory.createSimpleEmbed("Notice", "Restarting in **5** minutes", 0xFAA61A, "Viscord"),
+                EmbedFactory.createPlayerEventEmbed("Player Joined", "Steve joined the game", 0x43B581,
+                        "Steve", "Survival", "Viscord · Join", "https://mc-heads.net/avatar/Steve",
+                        EmbedEnvelope.Kind.JOIN),
+                EmbedFactory.createPlayerEventEmbed("Player Left", "Zoë left the game", 0xF04747,
+                        "Zoë", "Créatif", "Viscord · Leave", null, EmbedEnvelope.Kind.LEAVE),
+                EmbedFactory.createAdvancementEmbed("🏆", 0xA335EE, "Alex", "Free the End", null,
+                        "https://mc-heads.net/avatar/Alex"),
+                EmbedFactory.createServerStatusEmbed("Server Online", "The server is up", 0x43B581, null, "Viscord"),
+                EmbedFactory.createDeathEmbed("Steve was slain by \"Zombie\"\nat <0, 64, 0>", 0xF04747),
+                EmbedFactory.createPlayerDigestEmbed("Players Joined", "joined", 0x43B581,
+                        Arrays.asList("a", "b", "c"), "Survival", "Viscord · Digest")
+        };
+
+        for (OutgoingEmbed embed : embeds) {
+            assertSameEmbed(embed, OutgoingEmbed.fromJson(embed.toJson()));
+        }
+    }
+
+    @Test
+    void keepsTheFooterTag() {
+        OutgoingEmbed embed = EmbedFactory.createPlayerEventEmbed("Player Joined", "Steve joined the game", 0x43B581,
+                "Steve", "Survival", "Viscord · Join", null, EmbedEnvelope.Kind.JOIN);
+
+        EmbedEnvelope envelope = EmbedEnvelope.decode(OutgoingEmbed.fromJson(embed.toJson()).footerText);
+        assertEquals(EmbedEnvelope.Kind.JOIN, envelope.getKind());
+        assertEquals("Steve", envelope.getPlayerName());
+    }
+
+    @Test
+    void roundTripsEdgeColors() {
+        for (int color : new int[] {0, 1, 0x000100, 0xFFFFFF}) {
+            OutgoingEmbed embed = OutgoingEmbed.builder().title("t").color(color).build();
+            assertEquals(Integer.valueOf(color), OutgoingEmbed.fromJson(embed.toJson()).color);
+        }
+    }
+
+    @Test
+    void leavesUnsetPartsUnset() {
+        OutgoingEmbed embed = OutgoingEmbed.builder().description("only text").thumbnail("").build();
+
+        String json = embed.toJson();
+        assertFalse(json.contains("color"));
+        assertFalse(json.contains("footer"));
+        assertFalse(json.contains("thumbnail"));
+
+        OutgoingEmbed copy = OutgoingEmbed.fromJson(json);
+        assertSameEmbed(embed, copy);
+        assertNull(copy.color);
+        assertTrue(copy.fields.isEmpty());
+    }
+
+    @Test
+    void readsFieldsWithoutInline() {
+        OutgoingEmbed embed = OutgoingEmbed.fromJson("{\"fields\":[{\"name\":\"Player\",\"value\":\"Steve\"}]}");
+
+        assertEquals(1, embed.fields.size());
+        assertEquals("Player", embed.fields.get(0).name);
+        assertFalse(embed.fields.get(0).inline);
+    }
+
+    @Test
+    void roundTripsLongDigests() {
+        OutgoingEmbed embed = EmbedFactory.createPlayerDigestEmbed("Players Joined", "joined", 0x43B581,
+                Collections.nCopies(2000, "Player_123456"), "Survival", "Viscord · Digest");
+
+        assertTrue(embed.description.endsWith(" more"));
+        assertSameEmbed(embed, OutgoingEmbed.fromJson(embed.toJson()));
+    }
+
+    private static void assertSameEmbed(OutgoingEmbed expected, OutgoingEmbed actual) {
+        assertEquals(expected.title, actual.title);
+        assertEquals(expected.description, actual.description);
+        assertEquals(expected.color, actual.color);
+        assertEquals(expected.footerText, actual.footerText);
+        assertEquals(expected.thumbnailUrl, actual.thumbnailUrl);
+        assertEquals(expected.fields.size(), actual.fields.size());
+        for (int i = 0; i < expected.fields.size(); i++) {
+            assertEquals(expected.fields.get(i).name, actual.fields.get(i).name);
+            assertEquals(expected.fields.get(i).value, actual.fields.get(i).value);
+            assertEquals(expected.fields.get(i).inline, actual.fields.get(i).inline);
+        }
+        // And the journal line itself is stable
+        assertEquals(expected.toJson(), actual.toJson());
+    }
+}
@@ -8,6 +8,9 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -20,11 +23,10 @@ public final class Viscord {
     public static final Logger LOGGER = LogManager.getLogger(MOD_NAME);
 
     // Async executor for non-blocking Discord operations
-    public static final ExecutorService ASYNC_EXECUTOR = Executors.newCachedThreadPool(r -> {
-        Thread thread = new Thread(r, "Viscord-Async");
-        thread.setDaemon(true);
-        return thread;
-    });
+    private static volatile ExecutorService asyncExecutor = newAsyncExecutor();
+
+    // Single-threaded scheduler for delayed Discord work (coalescing windows, debounces)
+    private static volatile ScheduledExecutorService scheduler = newScheduler();
 
     private static MinecraftServer server;
     private static boolean discordEnabled = false;
@@ -42,30 +44,23 @@ public final class Viscord {
 
     public static void onServerStarting(MinecraftServer server) {
         Viscord.server = server;
+        // An integrated server can start again in the same JVM after the last one shut these down
+        startExecutors();
         LOGGER.info("[{}] Server starting...", MOD_NAME);
     }
 
     public static void onServerStarted(MinecraftServer server) {
         Viscord.server = server;
 
-        // Initialize Discord module (requires server to be fully started)
+        // Initialize Discord module (requires server to be fully started).
+        // Runs in the background; events from now on are buffered until it is ready.
         if (ViscordConfig.CONFIG.enabled.get()) {
-            try {
-                // Initialize with timeout protection to prevent hanging server startup
-                java.util.concurrent.CompletableFuture<Void> discordInitFuture = java.util.concurrent.CompletableFuture.runAsync(() -> {
-                    DiscordManager.getInstance().initialize(server);
-                }, ASYNC_EXECUTOR);
-
-                // Wait max 10 seconds for Discord initialization
-                discordInitFuture.get(10, TimeUnit.SECONDS);
-                discordEnabled = true;
-                LOGGER.info("[{}] Discord module enabled", MOD_NAME);
-            } catch (java.util.concurrent.TimeoutException e) {
-                LOGGER.error("[{}] Discord initialization timed out after 10 seconds!", MOD_NAME);
-                LOGGER.error("[{}] Discord features will be unavailable.", MOD_NAME);
-            } catch (Exception e) {
-                LOGGER.error("[{}] Failed to initialize Discord: {}", MOD_NAME, e.getMessage());
-            }
+            discordEnabled = true;
+            DiscordManager.getInstance().initializeAsync(server).whenComplete((ignored, error) -> {
+                if (error == null) {
+                    LOGGER.info("[{}] Discord module enabled", MOD_NAME);
+                }
+            });
         }
     }
 
@@ -81,18 +76,45 @@ public final class Viscord {
     public static void onServerStopped(MinecraftServer server) {
         LOGGER.info("[{}] Server stopped", MOD_NAME);
 
-        // Shutdown async executor
-        ASYNC_EXECUTOR.shutdown();
+        // Shutdown scheduler and async executor
+        ExecutorService async = asyncExecutor;
+        scheduler.shutdown();
+        async.shutdown();
         try {
-            if (!ASYNC_EXECUTOR.awaitTermination(5, TimeUnit.SECONDS)) {
-                ASYNC_EXECUTOR.shutdownNow();
+            if (!async.awaitTermination(5, TimeUnit.SECONDS)) {
+                async.shutdownNow();
             }
         } catch (InterruptedException e) {
-            ASYNC_EXECUTOR.shutdownNow();
+            async.shutdownNow();
             Thread.currentThread().interrupt();
         }
     }
 
+    private static synchronized void startExecutors() {
+        if (asyncExecutor.isShutdown()) {
+            asyncExecutor = newAsyncExecutor();
+        }
+        if (scheduler.isShutdown()) {
+            scheduler = newScheduler();
+        }
+    }
+
+    private static ExecutorService newAsyncExecutor() {
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "Viscord-Async");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ScheduledExecutorService newScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Viscord-Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public static MinecraftServer getServer() {
         return server;
     }
@@ -106,6 +128,27 @@ public final class Viscord {
      * Use this for all Discord-related operations to avoid blocking the main thread.
      */
     public static void executeAsync(Runnable task) {
-        ASYNC_EXECUTOR.execute(task);
+        asyncExecutor.execute(task);
+    }
+
+    /**
+     * The Viscord thread pool, for APIs that take an executor.
+     */
+    public static ExecutorService getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Run a task once after the given delay on the Viscord scheduler.
+     * Scheduled tasks must be short; hand off anything slow to executeAsync.
+     * Returns null if the scheduler has already been shut down.
+     */
+    public static ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        try {
+            return scheduler.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("[{}] Scheduler stopped, dropping delayed task", MOD_NAME);
+            return null;
+        }
     }
 }
@@ -0,0 +1,42 @@
+package network.vonix.viscord.discord;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Short-lived idempotency cache for chat capture. A message that reaches
+ * Viscord more than once (e.g. through two capture hooks) is only relayed the
+ * first time its key is seen.
+ */
+public class ChatDeduplicator {
+
+    private static final long TTL_MS = 5000;
+    private static final int MAX_ENTRIES = 1024;
+
+    // Insertion order is arrival order, so expired keys are always at the front
+    private final Map<String, Long> seen = new LinkedHashMap<>();
+
+    /**
+     * Returns true the first time a key is seen within the TTL.
+     */
+    public synchronized boolean firstSeen(String key) {
+        long now = System.currentTimeMillis();
+        Iterator<Long> it = seen.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next() <= TTL_MS && seen.size() <= MAX_ENTRIES) {
+                break;
+            }
+            it.remove();
+        }
+        return seen.putIfAbsent(key, now) == null;
+    }
+
+    /**
+     * Builds a key from the sender and whatever uniquely identifies the message
+     * (its signature, or its timestamp and salt for unsigned messages).
+     */
+    public static String key(String uuid, String messageId) {
+        return uuid + ":" + messageId;
+    }
+}
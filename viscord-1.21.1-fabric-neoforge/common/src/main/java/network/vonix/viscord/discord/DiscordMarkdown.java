@@ -0,0 +1,526 @@
+package network.vonix.viscord.discord;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.ClickEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.HoverEvent;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.Style;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Renders Discord markdown as Minecraft components: bold, italic, underline,
+ * strikethrough, spoilers, inline and block code, masked links and bare URLs.
+ *
+ * One pass splits the text into tokens and pairs emphasis delimiters on a
+ * stack; a second pass turns the tokens into styled runs. Unpaired delimiters
+ * are shown as typed. Every search that could fail is remembered, so the
+ * work stays linear in the input length whatever the input looks like.
+ */
+public final class DiscordMarkdown {
+
+    // Longer input is cut off; Discord itself allows at most 4096 characters in an embed description
+    public static final int MAX_INPUT = 4096;
+
+    private static final int BOLD = 0;
+    private static final int ITALIC = 1;
+    private static final int UNDERLINE = 2;
+    private static final int STRIKETHROUGH = 3;
+    private static final int SPOILER = 4;
+    private static final int KINDS = 5;
+
+    // Style for every combination of the first four kinds; spoilers wrap their runs instead
+    private static final Style[] STYLES = new Style[1 << SPOILER];
+
+    static {
+        for (int flags = 0; flags < STYLES.length; flags++) {
+            Style style = Style.EMPTY;
+            if ((flags & (1 << BOLD)) != 0) style = style.withBold(true);
+            if ((flags & (1 << ITALIC)) != 0) style = style.withItalic(true);
+            if ((flags & (1 << UNDERLINE)) != 0) style = style.withUnderlined(true);
+            if ((flags & (1 << STRIKETHROUGH)) != 0) style = style.withStrikethrough(true);
+            STYLES[flags] = style;
+        }
+    }
+
+    private DiscordMarkdown() {
+    }
+
+    /**
+     * Renders the text. Legacy § codes are left in place.
+     */
+    public static MutableComponent render(String text) {
+        MutableComponent root = Component.empty();
+        if (text == null || text.isEmpty()) {
+            return root;
+        }
+        if (text.length() > MAX_INPUT) {
+            text = text.substring(0, MAX_INPUT) + "…";
+        }
+        new Emitter(root).emit(new Tokenizer(text).tokenize());
+        return root;
+    }
+
+    // =================================================================================
+    // Tokens
+    // =================================================================================
+
+    private static final int TEXT = 0;
+    private static final int DELIMITER = 1;
+    private static final int CODE = 2;
+    private static final int CODE_BLOCK = 3;
+    private static final int LINK = 4;
+
+    private static final int UNPAIRED = 0;
+    private static final int OPENS = 1;
+    private static final int CLOSES = 2;
+
+    static final class Token {
+        final int type;
+        final String text;
+        // Delimiter kind, or the link URL
+        final int kind;
+        final String url;
+        int role = UNPAIRED;
+
+        Token(int type, String text, int kind, String url) {
+            this.type = type;
+            this.text = text;
+            this.kind = kind;
+            this.url = url;
+        }
+    }
+
+    // =================================================================================
+    // Tokenizer
+    // =================================================================================
+
+    static final class Tokenizer {
+        private final String text;
+        private final int length;
+        private final List<Token> tokens = new ArrayList<>();
+        private final StringBuilder pending = new StringBuilder();
+
+        // Open delimiters, innermost last, and how many of each kind are open
+        private final Deque<Token> openers = new ArrayDeque<>();
+        private final int[] openCount = new int[KINDS];
+
+        // Backtick searches: no run of exactly n backticks at or after noCloser[n]
+        private final int[] noCloser = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+        // Masked links: the ']' found by the last search, valid for any '[' before it
+        private int lastBracket = -1;
+        private int lastBracketFrom = Integer.MAX_VALUE;
+        // ...and where the URL after that ']' ends
+        private int checkedBracket = -1;
+        private int checkedUrlEnd;
+
+        Tokenizer(String text) {
+            this.text = text;
+            this.length = text.length();
+        }
+
+        List<Token> tokenize() {
+            int i = 0;
+            while (i < length) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\':
+                        if (i + 1 < length && isEscapable(text.charAt(i + 1))) {
+                            pending.append(text.charAt(i + 1));
+                            i += 2;
+                        } else {
+                            pending.append(c);
+                            i++;
+                        }
+                        break;
+                    case '`':
+                        i = code(i);
+                        break;
+                    case '*':
+                    case '_':
+                    case '~':
+                    case '|':
+                        i = delimiterRun(i, c);
+                        break;
+                    case '[':
+                        i = maskedLink(i);
+                        break;
+                    case '<':
+                        i = angleUrl(i);
+                        break;
+                    case 'h':
+                        i = bareUrl(i);
+                        break;
+                    default:
+                        pending.append(c);
+                        i++;
+                }
+            }
+            flushText();
+            // Whatever is still open was never closed
+            openers.clear();
+            return tokens;
+        }
+
+        private static boolean isEscapable(char c) {
+            return c == '*' || c == '_' || c == '~' || c == '|' || c == '`' || c == '\\'
+                    || c == '[' || c == ']' || c == '(' || c == ')' || c == '<' || c == '>';
+        }
+
+        private void flushText() {
+            if (pending.length() > 0) {
+                tokens.add(new Token(TEXT, pending.toString(), 0, null));
+                pending.setLength(0);
+            }
+        }
+
+        private void add(Token token) {
+            flushText();
+            tokens.add(token);
+        }
+
+        private int runLength(int start, char c) {
+            int end = start;
+            while (end < length && text.charAt(end) == c) {
+                end++;
+            }
+            return end - start;
+        }
+
+        // ---- Code ----
+
+        private int code(int start) {
+            int n = runLength(start, '`');
+            if (n > 3) {
+                pending.append(text, start, start + n);
+                return start + n;
+            }
+            int close = findBackticks(start + n, n);
+            if (close < 0) {
+                pending.append(text, start, start + n);
+                return start + n;
+            }
+            String content = text.substring(start + n, close);
+            if (n == 3) {
+                add(new Token(CODE_BLOCK, blockContent(content), 0, null));
+            } else if (!content.isEmpty()) {
+                add(new Token(CODE, content, 0, null));
+            }
+            return close + n;
+        }
+
+        private int findBackticks(int from, int n) {
+            if (from >= noCloser[n]) {
+                return -1;
+            }
+            int p = from;
+            while (p < length) {
+                if (text.charAt(p) == '`') {
+                    int m = runLength(p, '`');
+                    if (m == n) {
+                        return p;
+                    }
+                    p += m;
+                } else {
+                    p++;
+                }
+            }
+            noCloser[n] = from;
+            return -1;
+        }
+
+        /**
+         * Drops the language tag line and the newlines around a code block.
+         */
+        private static String blockContent(String content) {
+            int newline = content.indexOf('\n');
+            if (newline > 0) {
+                boolean tag = true;
+                for (int i = 0; i < newline; i++) {
+                    char c = content.charAt(i);
+                    if (!Character.isLetterOrDigit(c) && c != '+' && c != '-' && c != '#' && c != '.') {
+                        tag = false;
+                        break;
+                    }
+                }
+                if (tag) {
+                    content = content.substring(newline + 1);
+                }
+            }
+            int start = 0;
+            int end = content.length();
+            while (start < end && content.charAt(start) == '\n') start++;
+            while (end > start && content.charAt(end - 1) == '\n') end--;
+            return content.substring(start, end);
+        }
+
+        // ---- Emphasis ----
+
+        private int delimiterRun(int start, char c) {
+            int n = runLength(start, c);
+            int[] kinds = kindsFor(c, n);
+            if (kinds == null) {
+                pending.append(text, start, start + n);
+                return start + n;
+            }
+            char before = start > 0 ? text.charAt(start - 1) : ' ';
+            char after = start + n < length ? text.charAt(start + n) : ' ';
+            boolean canOpen = !Character.isWhitespace(after) && (c != '_' || !Character.isLetterOrDigit(before));
+            boolean canClose = !Character.isWhitespace(before) && (c != '_' || !Character.isLetterOrDigit(after));
+
+            boolean anyOpen = false;
+            for (int kind : kinds) {
+                anyOpen |= openCount[kind] > 0;
+            }
+            if (canClose && anyOpen) {
+                // Close the innermost first: "***" closes italic, then bold
+                for (int k = kinds.length - 1; k >= 0; k--) {
+                    close(kinds[k], c);
+                }
+            } else if (canOpen) {
+                for (int kind : kinds) {
+                    Token token = new Token(DELIMITER, delimiterText(kind, c), kind, null);
+                    add(token);
+                    openers.addLast(token);
+                    openCount[kind]++;
+                }
+            } else {
+                pending.append(text, start, start + n);
+            }
+            return start + n;
+        }
+
+        private void close(int kind, char c) {
+            if (openCount[kind] == 0) {
+                pending.append(delimiterText(kind, c));
+                return;
+            }
+            // Openers inside the one being closed were never closed themselves
+            Token opener;
+            while ((opener = openers.pollLast()).kind != kind) {
+                openCount[opener.kind]--;
+            }
+            openCount[kind]--;
+            opener.role = OPENS;
+            Token closer = new Token(DELIMITER, opener.text, kind, null);
+            closer.role = CLOSES;
+            add(closer);
+        }
+
+        private static int[] kindsFor(char c, int n) {
+            switch (c) {
+                case '*':
+                    return n == 1 ? new int[] {ITALIC} : n == 2 ? new int[] {BOLD}
+                            : n == 3 ? new int[] {BOLD, ITALIC} : null;
+                case '_':
+                    return n == 1 ? new int[] {ITALIC} : n == 2 ? new int[] {UNDERLINE}
+                            : n == 3 ? new int[] {UNDERLINE, ITALIC} : null;
+                case '~':
+                    return n == 2 ? new int[] {STRIKETHROUGH} : null;
+                case '|':
+                    return n == 2 ? new int[] {SPOILER} : null;
+                default:
+                    return null;
+            }
+        }
+
+        private static String delimiterText(int kind, char c) {
+            return kind == ITALIC ? String.valueOf(c) : new String(new char[] {c, c});
+        }
+
+        // ---- Links ----
+
+        /**
+         * [label](https://...)
+         */
+        private int maskedLink(int start) {
+            int bracket = findBracket(start + 1);
+            if (bracket > start + 1 && bracket + 1 < length && text.charAt(bracket + 1) == '('
+                    && isUrlStart(bracket + 2)) {
+                if (bracket != checkedBracket) {
+                    checkedBracket = bracket;
+                    checkedUrlEnd = urlEnd(bracket + 2, true);
+                }
+                int end = checkedUrlEnd;
+                if (end < length && text.charAt(end) == ')') {
+                    add(new Token(LINK, text.substring(start + 1, bracket), 0, text.substring(bracket + 2, end)));
+                    return end + 1;
+                }
+            }
+            pending.append('[');
+            return start + 1;
+        }
+
+        private int findBracket(int from) {
+            if (from <= lastBracketFrom || from > lastBracket) {
+                lastBracketFrom = from;
+                lastBracket = text.indexOf(']', from);
+                if (lastBracket < 0) {
+                    lastBracket = Integer.MAX_VALUE;
+                }
+            }
+            return lastBracket == Integer.MAX_VALUE ? -1 : lastBracket;
+        }
+
+        /**
+         * <https://...>, Discord's way of linking without a preview.
+         */
+        private int angleUrl(int start) {
+            if (isUrlStart(start + 1)) {
+                int end = urlEnd(start + 1, false);
+                if (end < length && text.charAt(end) == '>') {
+                    String url = text.substring(start + 1, end);
+                    add(new Token(LINK, url, 0, url));
+                    return end + 1;
+                }
+            }
+            pending.append('<');
+            return start + 1;
+        }
+
+        private int bareUrl(int start) {
+            if ((start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) || !isUrlStart(start)) {
+                pending.append('h');
+                return start + 1;
+            }
+            int end = urlEnd(start, false);
+            // Trailing punctuation and markdown belong to the sentence, not the URL
+            while (end > start && ".,:;!?'\"*_~|".indexOf(text.charAt(end - 1)) >= 0) {
+                end--;
+            }
+            if (end > start && text.charAt(end - 1) == ')' && !contains(start, end, '(')) {
+                end--;
+            }
+            String url = text.substring(start, end);
+            add(new Token(LINK, url, 0, url));
+            return end;
+        }
+
+        private boolean contains(int start, int end, char c) {
+            for (int i = start; i < end; i++) {
+                if (text.charAt(i) == c) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isUrlStart(int at) {
+            return text.startsWith("https://", at) || text.startsWith("http://", at);
+        }
+
+        /**
+         * End of a URL starting at {@code start}: the first whitespace or angle
+         * bracket, or ')' inside a masked link.
+         */
+        private int urlEnd(int start, boolean inParens) {
+            int end = start;
+            while (end < length) {
+                char c = text.charAt(end);
+                if (Character.isWhitespace(c) || c == '<' || c == '>' || (inParens && c == ')')) {
+                    break;
+                }
+                end++;
+            }
+            return end;
+        }
+    }
+
+    // =================================================================================
+    // Emitter
+    // =================================================================================
+
+    private static final class Emitter {
+        private final Deque<MutableComponent> containers = new ArrayDeque<>();
+        private final Deque<StringBuilder> spoilerText = new ArrayDeque<>();
+        private final StringBuilder run = new StringBuilder();
+        private int flags;
+
+        Emitter(MutableComponent root) {
+            containers.push(root);
+        }
+
+        void emit(List<Token> tokens) {
+            for (Token token : tokens) {
+                switch (token.type) {
+                    case TEXT:
+                        text(token.text);
+                        break;
+                    case DELIMITER:
+                        delimiter(token);
+                        break;
+                    case CODE:
+                    case CODE_BLOCK:
+                        flush();
+                        append(Component.literal(token.text)
+                                .withStyle(STYLES[flags].withColor(ChatFormatting.GRAY)), token.text);
+                        break;
+                    case LINK:
+                        flush();
+                        append(Component.literal(token.text).withStyle(STYLES[flags]
+                                .withColor(token.text.equals(token.url) ? ChatFormatting.BLUE : ChatFormatting.AQUA)
+                                .withUnderlined(true)
+                                .withClickEvent(new ClickEvent(ClickEvent.Action.OPEN_URL, token.url))
+                                .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
+                                        Component.literal(token.url)))), token.text);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            flush();
+        }
+
+        private void text(String value) {
+            run.append(value);
+        }
+
+        private void delimiter(Token token) {
+            if (token.role == UNPAIRED) {
+                run.append(token.text);
+                return;
+            }
+            flush();
+            if (token.kind == SPOILER) {
+                if (token.role == OPENS) {
+                    containers.push(Component.empty());
+                    spoilerText.push(new StringBuilder());
+                } else {
+                    closeSpoiler();
+                }
+            } else if (token.role == OPENS) {
+                flags |= 1 << token.kind;
+            } else {
+                flags &= ~(1 << token.kind);
+            }
+        }
+
+        private void closeSpoiler() {
+            MutableComponent spoiler = containers.pop();
+            String hidden = spoilerText.pop().toString();
+            spoiler.withStyle(Style.EMPTY
+                    .withObfuscated(true)
+                    .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Component.literal(hidden))));
+            append(spoiler, hidden);
+        }
+
+        private void flush() {
+            if (run.length() > 0) {
+                String value = run.toString();
+                run.setLength(0);
+                append(Component.literal(value).withStyle(STYLES[flags]), value);
+            }
+        }
+
+        private void append(Component component, String plain) {
+            containers.peek().append(component);
+            if (!spoilerText.isEmpty()) {
+                spoilerText.peek().append(plain);
+            }
+        }
+    }
+}
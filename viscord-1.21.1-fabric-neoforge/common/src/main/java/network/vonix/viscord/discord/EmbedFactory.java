@@ -1,122 +1,145 @@
 package network.vonix.viscord.discord;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-
 /**
- * Factory for creating Discord webhook embeds.
- * Reduces duplication in embed creation code.
+ * Factory for creating Discord embeds.
+ * Reduces duplication in embed creation code. Every footer carries an
+ * {@link EmbedEnvelope} so other Viscord servers can read the embed directly.
  */
 public class EmbedFactory {
 
+    private static final int DIGEST_NAMES_LENGTH = 3800;
+
     /**
      * Create a simple event embed with title, description, and color
      */
-    public static java.util.function.Consumer<JsonObject> createSimpleEmbed(
+    public static OutgoingEmbed createSimpleEmbed(
             String title,
             String description,
             int color,
             String footerText) {
-        return embed -> {
-            embed.addProperty("title", title);
-            embed.addProperty("description", description);
-            embed.addProperty("color", color);
-            addFooter(embed, footerText);
-        };
+        return OutgoingEmbed.builder()
+                .title(title)
+                .description(description)
+                .color(color)
+                .footer(EmbedEnvelope.tag(footerText, EmbedEnvelope.Kind.STATUS, null))
+                .build();
     }
 
     /**
      * Create a player event embed (join/leave) with player and server fields
      */
-    public static java.util.function.Consumer<JsonObject> createPlayerEventEmbed(
+    public static OutgoingEmbed createPlayerEventEmbed(
             String title,
             String description,
             int color,
             String playerName,
             String serverName,
             String footerText,
-            String thumbnailUrl) {
-        return embed -> {
-            embed.addProperty("title", title);
-            embed.addProperty("description", description);
-            embed.addProperty("color", color);
-
-            JsonArray fields = new JsonArray();
-            addField(fields, "Player", playerName, true);
-            addField(fields, "Server", serverName, true);
-            embed.add("fields", fields);
-
-            if (thumbnailUrl != null && !thumbnailUrl.isEmpty()) {
-                JsonObject thumbnail = new JsonObject();
-                thumbnail.addProperty("url", thumbnailUrl);
-                embed.add("thumbnail", thumbnail);
-            }
-
-            addFooter(embed, footerText);
-        };
+            String thumbnailUrl,
+            EmbedEnvelope.Kind kind) {
+        return OutgoingEmbed.builder()
+                .title(title)
+                .description(description)
+                .color(color)
+                .field("Player", playerName, true)
+                .field("Server", serverName, true)
+                .thumbnail(thumbnailUrl)
+                .footer(EmbedEnvelope.tag(footerText, kind, playerName))
+                .build();
     }
 
     /**
      * Create an advancement embed with player, title, and description fields
      */
-    public static java.util.function.Consumer<JsonObject> createAdvancementEmbed(
+    public static OutgoingEmbed createAdvancementEmbed(
             String emoji,
             int color,
             String playerName,
             String advancementTitle,
             String advancementDescription) {
-        return embed -> {
-            embed.addProperty("title", emoji + " Advancement Made");
-            embed.addProperty("description", "A player has completed an advancement.");
-            embed.addProperty("color", color);
-
-            JsonArray fields = new JsonArray();
-            addField(fields, "Player", playerName, true);
-            addField(fields, "Title", advancementTitle, true);
-            addField(fields, "Description",
-                    advancementDescription == null || advancementDescription.isBlank() ? "—" : advancementDescription,
-                    false);
-            embed.add("fields", fields);
-
-            addFooter(embed, "VonixCore · Advancement");
-        };
+        return OutgoingEmbed.builder()
+                .title(emoji + " Advancement Made")
+                .description("A player has completed an advancement.")
+                .color(color)
+                .field("Player", playerName, true)
+                .field("Title", advancementTitle, true)
+                .field("Description",
+                        advancementDescription == null || advancementDescription.isBlank() ? "—" : advancementDescription,
+                        false)
+                .footer(EmbedEnvelope.tag("VonixCore · Advancement", EmbedEnvelope.Kind.ADVANCEMENT, playerName))
+                .build();
     }
 
     /**
      * Create a server status embed (startup/shutdown)
      */
-    public static java.util.function.Consumer<JsonObject> createServerStatusEmbed(
+    public static OutgoingEmbed createServerStatusEmbed(
             String title,
             String description,
             int color,
             String serverName,
             String footerText) {
-        return embed -> {
-            embed.addProperty("title", title);
-            embed.addProperty("description", description);
-            embed.addProperty("color", color);
+        return OutgoingEmbed.builder()
+                .title(title)
+                .description(description)
+                .color(color)
+                .field("Server", serverName == null ? "Unknown" : serverName, true)
+                .footer(EmbedEnvelope.tag(footerText, EmbedEnvelope.Kind.STATUS, null))
+                .build();
+    }
 
-            JsonArray fields = new JsonArray();
-            addField(fields, "Server", serverName == null ? "Unknown" : serverName, true);
-            embed.add("fields", fields);
+    /**
+     * Create a death embed; the message already names the player
+     */
+    public static OutgoingEmbed createDeathEmbed(String message, int color) {
+        return OutgoingEmbed.builder()
+                .title("Player Died")
+                .description(message)
+                .color(color)
+                .footer(EmbedEnvelope.tag("Death", EmbedEnvelope.Kind.DEATH, null))
+                .build();
+    }
 
-            addFooter(embed, footerText);
-        };
+    /**
+     * Create a digest embed for a burst of joins or leaves, e.g. "23 players joined: a, b, c"
+     */
+    public static OutgoingEmbed createPlayerDigestEmbed(
+            String title,
+            String verb,
+            int color,
+            java.util.List<String> playerNames,
+            String serverName,
+            String footerText) {
+        return OutgoingEmbed.builder()
+                .title(title)
+                .description(formatDigest(verb, playerNames))
+                .color(color)
+                .field("Server", serverName == null ? "Unknown" : serverName, true)
+                .footer(EmbedEnvelope.tag(footerText, EmbedEnvelope.Kind.DIGEST, null))
+                .build();
     }
 
     // Helper methods
 
-    private static void addField(JsonArray fields, String name, String value, boolean inline) {
-        JsonObject field = new JsonObject();
-        field.addProperty("name", name);
-        field.addProperty("value", value);
-        field.addProperty("inline", inline);
-        fields.add(field);
-    }
-
-    private static void addFooter(JsonObject embed, String text) {
-        JsonObject footer = new JsonObject();
-        footer.addProperty("text", text);
-        embed.add("footer", footer);
+    private static String formatDigest(String verb, java.util.List<String> names) {
+        StringBuilder description = new StringBuilder()
+                .append(names.size()).append(names.size() == 1 ? " player " : " players ")
+                .append(verb).append(": ");
+        int shown = 0;
+        for (String name : names) {
+            // Stay well inside Discord's 4096 character description limit
+            if (description.length() + name.length() > DIGEST_NAMES_LENGTH) {
+                break;
+            }
+            if (shown > 0) {
+                description.append(", ");
+            }
+            description.append(name);
+            shown++;
+        }
+        if (shown < names.size()) {
+            description.append(" and ").append(names.size() - shown).append(" more");
+        }
+        return description.toString();
     }
 }
@@ -0,0 +1,71 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+import org.javacord.api.entity.intent.Intent;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Works out which gateway intents the bot needs for the enabled features, so
+ * Discord does not send (and we do not decompress and parse) events nobody
+ * listens to.
+ */
+public final class IntentPlanner {
+
+    private IntentPlanner() {
+    }
+
+    /**
+     * Plans the intent set.
+     *
+     * @param accountLinking whether account linking is enabled
+     * @param overrides      config entries: {@code NAME} or {@code +NAME} adds an intent,
+     *                       {@code -NAME} removes one
+     */
+    public static EnumSet<Intent> plan(boolean accountLinking, List<String> overrides) {
+        // Channel lookups and chat relay
+        EnumSet<Intent> intents = EnumSet.of(Intent.GUILDS, Intent.GUILD_MESSAGES, Intent.MESSAGE_CONTENT);
+
+        // Link codes are exchanged in direct messages
+        if (accountLinking) {
+            intents.add(Intent.DIRECT_MESSAGES);
+        }
+
+        if (overrides != null) {
+            for (String entry : overrides) {
+                applyOverride(intents, entry);
+            }
+        }
+        return intents;
+    }
+
+    private static void applyOverride(EnumSet<Intent> intents, String entry) {
+        if (entry == null || entry.trim().isEmpty()) {
+            return;
+        }
+        String value = entry.trim();
+        boolean remove = value.startsWith("-");
+        if (remove || value.startsWith("+")) {
+            value = value.substring(1).trim();
+        }
+
+        Intent intent = null;
+        for (Intent candidate : Intent.values()) {
+            if (candidate.name().equalsIgnoreCase(value)) {
+                intent = candidate;
+                break;
+            }
+        }
+        if (intent == null) {
+            Viscord.LOGGER.warn("[Discord] Unknown gateway intent in bot_intents: {}", entry);
+            return;
+        }
+
+        if (remove) {
+            intents.remove(intent);
+        } else {
+            intents.add(intent);
+        }
+    }
+}
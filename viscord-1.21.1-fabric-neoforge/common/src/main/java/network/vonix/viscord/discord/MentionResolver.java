@@ -0,0 +1,250 @@
+package network.vonix.viscord.discord;
+
+import network.vonix.viscord.Viscord;
+import org.javacord.api.DiscordApi;
+import org.javacord.api.entity.channel.Channel;
+import org.javacord.api.entity.channel.ServerChannel;
+import org.javacord.api.entity.message.Message;
+import org.javacord.api.entity.permission.Role;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replaces raw Discord tokens in message text with readable names:
+ * {@code <@id>} and {@code <@!id>} users, {@code <@&id>} roles, {@code <#id>}
+ * channels and {@code <:name:id>} / {@code <a:name:id>} custom emoji.
+ *
+ * Names come from the message itself (its mention lists) and Javacord's
+ * gateway cache first, then from a small TTL cache that drops the least
+ * recently used name when full. Unknown users are looked up over REST in the
+ * background, one request per id however many messages mention it; until
+ * then, and for anything else that cannot be found, a placeholder is shown
+ * and cached for the same TTL, so the same id is not asked for again on every
+ * message.
+ */
+public class MentionResolver {
+
+    private static final long TTL_MS = 10 * 60 * 1000;
+    private static final int MAX_ENTRIES = 1024;
+
+    private static final String UNKNOWN_USER = "@unknown-user";
+    private static final String UNKNOWN_ROLE = "@deleted-role";
+    private static final String UNKNOWN_CHANNEL = "#unknown-channel";
+
+    // Access-ordered, so the eldest entry is the least recently used; guarded by this
+    private final Map<String, Cached> cache = new LinkedHashMap<String, Cached>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Users with a REST lookup on its way
+    private final Set<Long> lookups = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns the text with every recognised token replaced. Names are
+     * escaped so they are not read as markdown.
+     */
+    public String resolve(Message message, String text) {
+        int open = text.indexOf('<');
+        if (open < 0) {
+            return text;
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        int copied = 0;
+        int close = -1;
+        while (open >= 0) {
+            // The first '>' after this '<' (reused while later '<'s come before it)
+            if (close <= open) {
+                close = text.indexOf('>', open + 1);
+                if (close < 0) {
+                    break;
+                }
+            }
+            String replacement = resolveToken(message, text, open + 1, close);
+            if (replacement != null) {
+                out.append(text, copied, open);
+                appendEscaped(out, replacement);
+                copied = close + 1;
+                open = text.indexOf('<', close + 1);
+            } else {
+                open = text.indexOf('<', open + 1);
+            }
+        }
+        if (copied == 0) {
+            return text;
+        }
+        return out.append(text, copied, text.length()).toString();
+    }
+
+    /**
+     * Resolves the token between {@code start} and {@code end} (without the
+     * angle brackets), or returns null if it is not a mention or emoji.
+     */
+    private String resolveToken(Message message, String text, int start, int end) {
+        if (end - start < 2) {
+            return null;
+        }
+        char first = text.charAt(start);
+        if (first == '@') {
+            char second = text.charAt(start + 1);
+            if (second == '&') {
+                long id = parseId(text, start + 2, end);
+                return id < 0 ? null : role(message, id);
+            }
+            long id = parseId(text, second == '!' ? start + 2 : start + 1, end);
+            return id < 0 ? null : user(message, id);
+        }
+        if (first == '#') {
+            long id = parseId(text, start + 1, end);
+            return id < 0 ? null : channel(message.getApi(), id);
+        }
+        if (first == ':' || (first == 'a' && text.charAt(start + 1) == ':')) {
+            // <:name:id> or <a:name:id>; the name is right there
+            int nameStart = first == ':' ? start + 1 : start + 2;
+            int colon = text.indexOf(':', nameStart);
+            if (colon > nameStart && colon < end && parseId(text, colon + 1, end) >= 0) {
+                return ":" + text.substring(nameStart, colon) + ":";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses the snowflake in {@code text[start, end)}, or returns -1 if it is
+     * not a number or does not fit in a long.
+     */
+    static long parseId(String text, int start, int end) {
+        // Long.MAX_VALUE has 19 digits
+        if (start >= end || end - start > 19) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            int digit = c - '0';
+            if (id > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            id = id * 10 + digit;
+        }
+        return id;
+    }
+
+    // =================================================================================
+    // Lookups
+    // =================================================================================
+
+    private String user(Message message, long id) {
+        Optional<Server> server = message.getServer();
+        for (User user : message.getMentionedUsers()) {
+            if (user.getId() == id) {
+                return "@" + (server.isPresent() ? user.getDisplayName(server.get()) : user.getName());
+            }
+        }
+        String key = "u" + id;
+        String cached = cached(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (lookups.add(id)) {
+            // Placeholder until the lookup finishes, and for the whole TTL if it fails
+            put(key, UNKNOWN_USER);
+            message.getApi().getUserById(id).whenComplete((user, error) -> {
+                if (error == null) {
+                    put(key, "@" + server.map(user::getDisplayName).orElse(user.getName()));
+                } else {
+                    Viscord.LOGGER.debug("[Discord] Could not look up mentioned user {}: {}", id, error.getMessage());
+                }
+                lookups.remove(id);
+            });
+        }
+        // The lookup may already have been answered from Javacord's cache
+        cached = cached(key);
+        return cached != null ? cached : UNKNOWN_USER;
+    }
+
+    private String role(Message message, long id) {
+        for (Role role : message.getMentionedRoles()) {
+            if (role.getId() == id) {
+                return "@" + role.getName();
+            }
+        }
+        String key = "r" + id;
+        String cached = cached(key);
+        if (cached != null) {
+            return cached;
+        }
+        String name = message.getServer().flatMap(s -> s.getRoleById(id)).map(r -> "@" + r.getName())
+                .orElse(UNKNOWN_ROLE);
+        put(key, name);
+        return name;
+    }
+
+    private String channel(DiscordApi api, long id) {
+        String key = "c" + id;
+        String cached = cached(key);
+        if (cached != null) {
+            return cached;
+        }
+        String name = api.getChannelById(id).flatMap(Channel::asServerChannel).map(ServerChannel::getName)
+                .map(n -> "#" + n).orElse(UNKNOWN_CHANNEL);
+        put(key, name);
+        return name;
+    }
+
+    // =================================================================================
+    // TTL cache
+    // =================================================================================
+
+    private synchronized String cached(String key) {
+        Cached entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            cache.remove(key);
+            return null;
+        }
+        return entry.name;
+    }
+
+    private synchronized void put(String key, String name) {
+        cache.put(key, new Cached(name, System.currentTimeMillis() + TTL_MS));
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    private static void appendEscaped(StringBuilder out, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '*' || c == '_' || c == '~' || c == '|' || c == '`' || c == '\\'
+                    || c == '[' || c == ']' || c == '<' || c == '>') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+    }
+
+    private static final class Cached {
+        final String name;
+        final long expiresAt;
+
+        Cached(String name, long expiresAt) {
+            this.name = name;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package network.vonix.viscord.discord;
+
+/**
+ * A Minecraft-side event on its way to Discord. Built on the server thread
+ * with only the raw values; config lookups, formatting and serialization all
+ * happen later on the relay consumer.
+ */
+public final class RelayEvent {
+
+    public enum Type {
+        CHAT,
+        JOIN,
+        LEAVE,
+        DEATH,
+        ADVANCEMENT,
+        SERVER_STATUS
+    }
+
+    final Type type;
+    final String username;
+    final String uuid;
+    // Chat message, death message, advancement title or status title
+    final String text;
+    // Advancement or status description
+    final String detail;
+    // Chat message identity for deduplication, may be null
+    final String messageId;
+    final int color;
+
+    private RelayEvent(Type type, String username, String uuid, String text, String detail, String messageId,
+            int color) {
+        this.type = type;
+        this.username = username;
+        this.uuid = uuid;
+        this.text = text;
+        this.detail = detail;
+        this.messageId = messageId;
+        this.color = color;
+    }
+
+    public static RelayEvent chat(String username, String message, String uuid, String messageId) {
+        return new RelayEvent(Type.CHAT, username, uuid, message, null, messageId, 0);
+    }
+
+    public static RelayEvent join(String username, String uuid) {
+        return new RelayEvent(Type.JOIN, username, uuid, null, null, null, 0);
+    }
+
+    public static RelayEvent leave(String username, String uuid) {
+        return new RelayEvent(Type.LEAVE, username, uuid, null, null, null, 0);
+    }
+
+    public static RelayEvent death(String message) {
+        return new RelayEvent(Type.DEATH, null, null, message, null, null, 0);
+    }
+
+    public static RelayEvent advancement(String username, String title, String description, String uuid) {
+        return new RelayEvent(Type.ADVANCEMENT, username, uuid, title, description, null, 0);
+    }
+
+    public static RelayEvent serverStatus(String title, String description, int color) {
+        return new RelayEvent(Type.SERVER_STATUS, null, null, title, description, null, color);
+    }
+}
@@ -29,8 +29,10 @@ public class ServerGamePacketListenerImplMixin {
         String content = message.serverContent().getString();
         String username = player.getGameProfile().getName();
         String uuid = player.getUUID().toString();
+        // Timestamp and salt are part of the signed body, so they identify the message even when unsigned
+        String messageId = message.timeStamp().toEpochMilli() + ":" + message.salt();
 
-        // Send to Discord
-        DiscordManager.getInstance().sendChatMessage(username, content, uuid);
+        // Send to Discord - this is the only chat capture point on 1.21.1
+        DiscordManager.getInstance().sendChatMessage(username, content, uuid, messageId);
     }
 }
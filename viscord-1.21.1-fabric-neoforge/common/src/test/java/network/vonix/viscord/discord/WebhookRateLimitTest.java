@@ -0,0 +1,197 @@
+package network.vonix.viscord.discord;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link WebhookClient} and {@link DiscordRateLimiter} against a scripted
+ * HTTP server that answers with Discord's rate-limit headers and 429s.
+ */
+class WebhookRateLimitTest {
+
+    // Slack for timer and scheduling jitter when checking waits
+    private static final long TOLERANCE_MS = 100;
+
+    private MockWebServer server;
+    private final List<WebhookClient> clients = new ArrayList<>();
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        for (WebhookClient client : clients) {
+            client.shutdown();
+        }
+        server.shutdown();
+    }
+
+    @Test
+    void waitsForEmptyBucketToResetBeforeSending() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(204)
+                .addHeader("X-RateLimit-Bucket", "chat")
+                .addHeader("X-RateLimit-Limit", "1")
+                .addHeader("X-RateLimit-Remaining", "0")
+                .addHeader("X-RateLimit-Reset-After", "0.5"));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        WebhookClient client = newClient(server.url("/webhook").toString());
+
+        CompletableFuture<Void> first = client.sendMessage("alice", null, "one");
+        CompletableFuture<Void> second = client.sendMessage("alice", null, "two");
+
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+        long firstAt = System.nanoTime();
+        assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+        long gapMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstAt);
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue(gapMs >= 500 - TOLERANCE_MS, "second request went out after " + gapMs + " ms");
+    }
+
+    @Test
+    void retriesAfterRetryAfterAndGivesUpAtTheCap() throws Exception {
+        for (int i = 0; i < WebhookClient.MAX_RATE_LIMIT_RETRIES + 2; i++) {
+            server.enqueue(rateLimited("0.2", false));
+        }
+        WebhookClient client = newClient(server.url("/webhook").toString());
+
+        CompletableFuture<Void> result = client.sendMessage("alice", null, "hello");
+
+        long previous = 0;
+        for (int i = 0; i < WebhookClient.MAX_RATE_LIMIT_RETRIES; i++) {
+            assertNotNull(server.takeRequest(5, TimeUnit.SECONDS), "attempt " + (i + 1) + " never arrived");
+            long now = System.nanoTime();
+            if (i > 0) {
+                long gapMs = TimeUnit.NANOSECONDS.toMillis(now - previous);
+                assertTrue(gapMs >= 200 - TOLERANCE_MS, "attempt " + (i + 1) + " went out after " + gapMs + " ms");
+            }
+            previous = now;
+        }
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DeliveryException.class, error.getCause());
+        assertTrue(((DeliveryException) error.getCause()).isRetryable());
+
+        // Nothing goes out after the last allowed attempt
+        Thread.sleep(500);
+        assertEquals(WebhookClient.MAX_RATE_LIMIT_RETRIES, server.getRequestCount());
+    }
+
+    @Test
+    void globalRateLimitHoldsBackEveryWebhook() throws Exception {
+        server.enqueue(rateLimited("0.5", true));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        WebhookClient client = newClient(server.url("/a").toString(), server.url("/b").toString());
+
+        CompletableFuture<Void> first = client.sendMessage("alice", null, "one");
+        RecordedRequest limited = server.takeRequest(5, TimeUnit.SECONDS);
+        assertNotNull(limited);
+        long limitedAt = System.nanoTime();
+        assertEquals("/a", limited.getPath());
+
+        // Let the 429 be read, then send from someone else; they get the other webhook
+        Thread.sleep(100);
+        CompletableFuture<Void> second = client.sendMessage("bob", null, "two");
+
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+            assertNotNull(request);
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - limitedAt);
+            assertTrue(waitedMs >= 500 - TOLERANCE_MS, request.getPath() + " went out after " + waitedMs + " ms");
+            paths.add(request.getPath());
+        }
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue(paths.contains("/b"), "second sender was not routed to the other webhook: " + paths);
+    }
+
+    @Test
+    void globalRateLimitAppliesToRoutesWithoutBuckets() {
+        DiscordRateLimiter limiter = new DiscordRateLimiter();
+        long retryAfter = limiter.onResponse("/a", 429, okhttp3.Headers.of(
+                "Retry-After", "1.5",
+                "X-RateLimit-Global", "true"));
+
+        assertEquals(1500, retryAfter);
+        long delayA = limiter.getDelayMillis("/a");
+        long delayB = limiter.getDelayMillis("/b");
+        assertTrue(delayA > 0 && delayA <= 1500, "/a waits " + delayA + " ms");
+        assertTrue(delayB > 0 && delayB <= 1500, "/b waits " + delayB + " ms");
+    }
+
+    @Test
+    void bucketLimitOnlyAppliesToItsOwnRoute() {
+        DiscordRateLimiter limiter = new DiscordRateLimiter();
+        limiter.onResponse("/a", 429, okhttp3.Headers.of(
+                "Retry-After", "1",
+                "X-RateLimit-Bucket", "a",
+                "X-RateLimit-Remaining", "0"));
+
+        long delayA = limiter.getDelayMillis("/a");
+        assertTrue(delayA > 0 && delayA <= 1000, "/a waits " + delayA + " ms");
+        assertEquals(0, limiter.getDelayMillis("/b"));
+    }
+
+    @Test
+    void sendsAgainAfterShutdownAndReconfigure() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        WebhookClient client = newClient(server.url("/webhook").toString());
+        client.sendMessage("alice", null, "before").get(5, TimeUnit.SECONDS);
+
+        // An integrated server stopping and starting again in the same JVM
+        client.shutdown();
+        client.configureQueue(100, 0, OutboundQueue.OverflowPolicy.DROP_OLDEST, 0);
+
+        client.sendMessage("alice", null, "after").get(5, TimeUnit.SECONDS);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private WebhookClient newClient(String... urls) {
+        WebhookClient client = new WebhookClient();
+        client.updateUrls(Arrays.asList(urls));
+        client.configureQueue(100, 0, OutboundQueue.OverflowPolicy.DROP_OLDEST, 0);
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * A 429 as Discord sends it: headers plus the JSON body with retry_after.
+     */
+    private static MockResponse rateLimited(String retryAfter, boolean global) {
+        return new MockResponse().setResponseCode(429)
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Retry-After", retryAfter)
+                .addHeader("X-RateLimit-Bucket", "chat")
+                .addHeader("X-RateLimit-Limit", "5")
+                .addHeader("X-RateLimit-Remaining", "0")
+                .addHeader("X-RateLimit-Reset-After", retryAfter)
+                .addHeader("X-RateLimit-Global", String.valueOf(global))
+                .setBody("{\"message\":\"You are being rate limited.\",\"retry_after\":" + retryAfter
+                        + ",\"global\":" + global + "}");
+    }
+}
@@ -2,10 +2,8 @@ package network.vonix.viscord.fabric;
 
 import net.fabricmc.api.DedicatedServerModInitializer;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
-import net.fabricmc.fabric.api.message.v1.ServerMessageEvents;
 import network.vonix.viscord.Viscord;
 import network.vonix.viscord.discord.DiscordEventHandler;
-import network.vonix.viscord.discord.DiscordManager;
 import network.vonix.viscord.integration.FluxerIntegration;
 
 /**
@@ -30,16 +28,6 @@ public final class ViscordFabric implements DedicatedServerModInitializer {
         ServerLifecycleEvents.SERVER_STOPPING.register(Viscord::onServerStopping);
         ServerLifecycleEvents.SERVER_STOPPED.register(Viscord::onServerStopped);
 
-        // Register chat event
-        ServerMessageEvents.CHAT_MESSAGE.register((message, player, params) -> {
-            if (DiscordManager.getInstance().isRunning()) {
-                String content = message.getContent().getString();
-                String username = player.getGameProfile().getName();
-                String uuid = player.getUUID().toString();
-
-                // Send to Discord
-                DiscordManager.getInstance().sendChatMessage(username, content, uuid);
-            }
-        });
+        // Chat is captured by ServerGamePacketListenerImplMixin in common, which also covers NeoForge
     }
 }